@@ -1,5 +1,7 @@
 package io.github.lucfr1746.llibrary;
 
+import io.github.lucfr1746.llibrary.action.ActionScheduler;
+import io.github.lucfr1746.llibrary.economy.EconomyQueue;
 import io.github.lucfr1746.llibrary.inventory.InventoryManager;
 import io.github.lucfr1746.llibrary.util.helper.Logger;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
@@ -72,6 +74,24 @@ public final class LLibrary extends JavaPlugin {
         return pluginLoader.getInventoryManager();
     }
 
+    /**
+     * Gets the scheduler running delayed actions.
+     *
+     * @return The ActionScheduler instance.
+     */
+    public static ActionScheduler getActionScheduler() {
+        return pluginLoader.getActionScheduler();
+    }
+
+    /**
+     * Gets the queue applying money transactions off the main thread.
+     *
+     * @return The EconomyQueue instance.
+     */
+    public static EconomyQueue getEconomyQueue() {
+        return pluginLoader.getEconomyQueue();
+    }
+
     /**
      * Gets the custom logger for this plugin.
      *
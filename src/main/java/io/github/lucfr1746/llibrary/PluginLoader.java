@@ -3,13 +3,19 @@ package io.github.lucfr1746.llibrary;
 import dev.jorel.commandapi.*;
 import dev.jorel.commandapi.arguments.ArgumentSuggestions;
 import dev.jorel.commandapi.arguments.StringArgument;
+import io.github.lucfr1746.llibrary.action.ActionScheduler;
+import io.github.lucfr1746.llibrary.economy.EconomyQueue;
+import io.github.lucfr1746.llibrary.economy.VaultEconomyBackend;
 import io.github.lucfr1746.llibrary.inventory.InventoryManager;
+import io.github.lucfr1746.llibrary.util.helper.LatencyTracker;
 import io.github.lucfr1746.llibrary.util.helper.Logger;
+import io.github.lucfr1746.llibrary.util.helper.StringUtil;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.permission.Permission;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
@@ -21,6 +27,10 @@ class PluginLoader {
 
     private final InventoryManager inventoryManager;
 
+    private final ActionScheduler actionScheduler;
+
+    private final EconomyQueue economyQueue;
+
     private final Logger logger;
     private BukkitAudiences audiences;
     private Economy economy;
@@ -39,22 +49,37 @@ class PluginLoader {
         registerCommands();
 
         this.inventoryManager = new InventoryManager();
+        this.actionScheduler = new ActionScheduler();
+        this.economyQueue = new EconomyQueue();
+        if (this.economy != null) this.economyQueue.setBackend(new VaultEconomyBackend(this.economy));
     }
 
     public void enable() {
         CommandAPI.onEnable();
         this.audiences = BukkitAudiences.create(this.plugin);
         this.inventoryManager.load();
+        this.actionScheduler.start();
+        this.economyQueue.start();
     }
 
     public void disable() {
         this.inventoryManager.disable();
+        this.actionScheduler.stop();
+        this.economyQueue.stop();
     }
 
     public InventoryManager getInventoryManager() {
         return this.inventoryManager;
     }
 
+    public ActionScheduler getActionScheduler() {
+        return this.actionScheduler;
+    }
+
+    public EconomyQueue getEconomyQueue() {
+        return this.economyQueue;
+    }
+
     public Logger getLogger() {
         return this.logger;
     }
@@ -101,10 +126,16 @@ class PluginLoader {
                 .withArguments(new StringArgument("action")
                         .replaceSuggestions(ArgumentSuggestions.stringsWithTooltips(info ->
                                 new IStringTooltip[]{
-                                        StringTooltip.ofString("reload", "Reload the plugin")
+                                        StringTooltip.ofString("reload", "Reload the plugin"),
+                                        StringTooltip.ofString("stats", "Show menu performance statistics")
                                 }
                         )))
                 .executes((sender, args) -> {
+                    if ("stats".equalsIgnoreCase(String.valueOf(args.get("action")))) {
+                        sendStats(sender);
+                        return;
+                    }
+
                     boolean isPlayer = sender instanceof Player;
                     LLibrary.getPluginLogger().info("Reloading LLibrary...");
                     if (isPlayer) sender.sendMessage("Reloading LLibrary...");
@@ -125,6 +156,21 @@ class PluginLoader {
                 .register();
     }
 
+    private void sendStats(CommandSender sender) {
+        LatencyTracker openLatency = this.inventoryManager.getOpenLatency();
+        sender.sendMessage(ChatColor.YELLOW + "Menu opens: " + ChatColor.WHITE + openLatency.getTotal()
+                + ChatColor.YELLOW + " | p50: " + ChatColor.WHITE + StringUtil.formatNumber(openLatency.getP50Millis(), 2, false) + "ms"
+                + ChatColor.YELLOW + " | p99: " + ChatColor.WHITE + StringUtil.formatNumber(openLatency.getP99Millis(), 2, false) + "ms");
+        LatencyTracker batchLatency = this.inventoryManager.getBatchOpenLatency();
+        sender.sendMessage(ChatColor.YELLOW + "Open batches: " + ChatColor.WHITE + batchLatency.getTotal()
+                + ChatColor.YELLOW + " | p50: " + ChatColor.WHITE + StringUtil.formatNumber(batchLatency.getP50Millis(), 2, false) + "ms"
+                + ChatColor.YELLOW + " | p99: " + ChatColor.WHITE + StringUtil.formatNumber(batchLatency.getP99Millis(), 2, false) + "ms");
+        sender.sendMessage(ChatColor.YELLOW + "Throttled clicks: " + ChatColor.WHITE + this.inventoryManager.getClickThrottle().getHits()
+                + ChatColor.YELLOW + " | Leaked sessions: " + ChatColor.WHITE + this.inventoryManager.getLeakedSessions()
+                + ChatColor.YELLOW + " | Delayed actions: " + ChatColor.WHITE + this.actionScheduler.getPending()
+                + ChatColor.YELLOW + " | Failed transactions: " + ChatColor.WHITE + this.economyQueue.getFailures());
+    }
+
     static class Hooks {
 
         private boolean hasPaper = false;
@@ -6,27 +6,50 @@ import org.bukkit.Sound;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.Function;
 
 /**
  * Loads and manages different types of actions in the plugin.
  * Provides a way to register, retrieve, and process actions based on string inputs.
+ * <p>
+ * Every loader shares one process-wide registry, so an action registered once by any plugin can be used by every menu.
+ * The registry is copied on write: registering is rare and synchronized, lookups are lock-free and safe from any thread.
  */
 public class ActionLoader {
 
-    private final Map<String, Function<String, Action>> actionFactories = new HashMap<>();
+    private static final ActionLoader INSTANCE = new ActionLoader();
+    private static final Object REGISTRY_LOCK = new Object();
+    private static volatile Map<String, Function<String, Action>> actionFactories = Map.of();
+
+    static {
+        INSTANCE.registerDefaults();
+    }
 
     /**
-     * Initializes the ActionLoader and registers all available actions.
+     * Creates a loader backed by the shared registry.
+     * Prefer {@link #getInstance()}, every loader sees the same actions.
      */
     public ActionLoader() {
+    }
+
+    /**
+     * Gets the shared loader.
+     * @return The ActionLoader instance.
+     */
+    public static ActionLoader getInstance() {
+        return INSTANCE;
+    }
+
+    private void registerDefaults() {
         registerAction("[console]", ConsoleAction::new);
         registerAction("[player]", PlayerAction::new);
         registerAction("[chat]", ChatAction::new);
         registerAction("[message]", MessageAction::new);
         registerAction("[mini-message]", MiniMessageAction::new);
         registerAction("[open-menu]", OpenMenuAction::new);
+        registerAction("[back]", input -> new BackAction());
         registerAction("[broadcast]", BroadcastAction::new);
         registerAction("[broadcast-world]", BroadcastWorldAction::new);
         registerAction("[take-money]", input -> new TakeMoneyAction(Double.parseDouble(input)));
@@ -35,18 +58,25 @@ public class ActionLoader {
         registerAction("[give-exp]", input -> new GiveExpAction(Integer.parseInt(input)));
         registerAction("[take-permission]", TakePermissionAction::new);
         registerAction("[give-permission]", GivePermissionAction::new);
+        registerAction("[delay]", input -> new DelayAction(Integer.parseInt(input.trim())));
+        registerAction("[repeat]", ActionLoader::parseRepeatAction);
+        registerAction("[chance]", input -> new ChanceAction(Double.parseDouble(input.trim().replace("%", ""))));
         registerAction("[sound]", input -> parseSoundAction("[sound]", input));
         registerAction("[broadcast-sound]", input -> parseSoundAction("[broadcast-sound]", input));
         registerAction("[broadcast-world-sound]", input -> parseSoundAction("[broadcast-world-sound]", input));
     }
 
     /**
-     * Registers an action with a specific identifier.
+     * Registers an action with a specific identifier, for every loader.
      * @param identifier The string identifier for the action.
      * @param factory The function that creates the action instance.
      */
     public void registerAction(String identifier, Function<String, Action> factory) {
-        actionFactories.put(identifier.toLowerCase(), factory);
+        synchronized (REGISTRY_LOCK) {
+            Map<String, Function<String, Action>> factories = new HashMap<>(actionFactories);
+            factories.put(identifier.toLowerCase(Locale.ROOT), factory);
+            actionFactories = Map.copyOf(factories);
+        }
     }
 
     /**
@@ -56,7 +86,7 @@ public class ActionLoader {
      */
     public Action getAction(String input) {
         String[] args = input.split(" ", 2);
-        Function<String, Action> factory = actionFactories.get(args[0].toLowerCase());
+        Function<String, Action> factory = actionFactories.get(args[0].toLowerCase(Locale.ROOT));
 
         if (factory != null) {
             return factory.apply(args.length > 1 ? args[1] : "");
@@ -67,6 +97,8 @@ public class ActionLoader {
 
     /**
      * Retrieves a list of Action instances based on a list of input strings.
+     * {@code [delay]}, {@code [repeat]} and {@code [chance]} only take effect once the list is compiled,
+     * use {@link #compile(List)} to run the list.
      * @param inputs A list of action input strings.
      * @return A list of corresponding Action instances.
      */
@@ -79,6 +111,27 @@ public class ActionLoader {
         return actions;
     }
 
+    /**
+     * Compiles a list of input strings into a single action, see {@link ActionProgram}.
+     * @param inputs A list of action input strings.
+     * @return The compiled program.
+     */
+    public ActionProgram compile(List<String> inputs) {
+        return ActionProgram.compile(getActions(inputs));
+    }
+
+    /**
+     * Parses a repeat action from an input string.
+     * @param input The input defining the repeat count and the interval in ticks, which defaults to 20.
+     * @return The corresponding repeat action.
+     */
+    private static Action parseRepeatAction(String input) {
+        String[] args = input.trim().split(" +");
+        int times = Integer.parseInt(args[0]);
+        int interval = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        return new RepeatAction(times, interval);
+    }
+
     /**
      * Parses a sound action from an input string.
      * @param type The type of sound action.
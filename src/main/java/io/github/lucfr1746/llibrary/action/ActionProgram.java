@@ -0,0 +1,293 @@
+package io.github.lucfr1746.llibrary.action;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.list.ChanceAction;
+import io.github.lucfr1746.llibrary.action.list.DelayAction;
+import io.github.lucfr1746.llibrary.action.list.MessageAction;
+import io.github.lucfr1746.llibrary.action.list.MiniMessageAction;
+import io.github.lucfr1746.llibrary.action.list.RepeatAction;
+import io.github.lucfr1746.llibrary.action.list.TakeMoneyAction;
+import io.github.lucfr1746.llibrary.util.helper.StringUtil;
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A list of actions compiled into a single action.
+ * <p>
+ * Consecutive {@link MessageAction}s are fused into one multi-line message, and so are consecutive {@link MiniMessageAction}s.
+ * Lines without placeholders are formatted once at compile time, so running the program only formats what depends on the player.
+ * Every line starts from a reset style, so colours never carry over from the line before, as with separate messages.
+ * The other actions are kept as they are and run in order from a flat array.
+ * <p>
+ * {@link DelayAction}, {@link RepeatAction} and {@link ChanceAction} apply to every action after them in the list:
+ * the rest of the list is delayed, repeated or only run by chance. Delays run on the {@link ActionScheduler}.
+ * <p>
+ * {@link TakeMoneyAction} gates every action after it: the rest of the list only runs, on the main thread,
+ * once the money was actually taken. A purchase the player cannot afford never hands out what it pays for.
+ */
+public final class ActionProgram extends Action {
+
+    private static final ActionProgram EMPTY = new ActionProgram(List.of(), new Action[0]);
+
+    private final List<Action> actions;
+    private final Action[] steps;
+
+    private ActionProgram(List<Action> actions, Action[] steps) {
+        this.actions = actions;
+        this.steps = steps;
+    }
+
+    /**
+     * Compiles a list of actions.
+     * @param actions The actions, in execution order.
+     * @return The compiled program.
+     */
+    public static ActionProgram compile(List<Action> actions) {
+        if (actions.isEmpty()) return EMPTY;
+
+        List<Action> steps = new ArrayList<>(actions.size());
+        int i = 0;
+        while (i < actions.size()) {
+            Action action = actions.get(i);
+            if (action instanceof DelayAction || action instanceof RepeatAction || action instanceof ChanceAction
+                    || action instanceof TakeMoneyAction) {
+                // Control actions apply to everything after them, which is compiled as their own program.
+                steps.add(control(action, compile(actions.subList(i + 1, actions.size()))));
+                break;
+            }
+            // Exact class checks, a subclass may send its message differently.
+            if (action.getClass() == MessageAction.class) {
+                List<String> lines = new ArrayList<>();
+                while (i < actions.size() && actions.get(i).getClass() == MessageAction.class) {
+                    lines.add(((MessageAction) actions.get(i)).getMessage());
+                    i++;
+                }
+                steps.add(new MessageBatch(lines));
+            } else if (action.getClass() == MiniMessageAction.class) {
+                List<String> lines = new ArrayList<>();
+                while (i < actions.size() && actions.get(i).getClass() == MiniMessageAction.class) {
+                    lines.add(((MiniMessageAction) actions.get(i)).getMessage());
+                    i++;
+                }
+                steps.add(new MiniMessageBatch(lines));
+            } else {
+                if (action instanceof ActionProgram program) steps.addAll(Arrays.asList(program.steps));
+                else steps.add(action);
+                i++;
+            }
+        }
+        return new ActionProgram(List.copyOf(actions), steps.toArray(new Action[0]));
+    }
+
+    /**
+     * Gets the actions this program was compiled from.
+     * @return An unmodifiable list of the source actions.
+     */
+    public List<Action> getActions() {
+        return this.actions;
+    }
+
+    /**
+     * Checks whether the program does nothing.
+     * @return {@code true} if there are no actions.
+     */
+    public boolean isEmpty() {
+        return this.steps.length == 0;
+    }
+
+    @Override
+    public void execute(Player player) {
+        for (Action step : this.steps) {
+            step.execute(player);
+        }
+    }
+
+    private static Action control(Action action, ActionProgram rest) {
+        if (action instanceof DelayAction delay) return new DelayStep(delay.getTicks(), rest);
+        if (action instanceof RepeatAction repeat) return new RepeatStep(repeat.getTimes(), repeat.getInterval(), rest);
+        if (action instanceof TakeMoneyAction payment) return new PaymentStep(payment, rest);
+        return new ChanceStep(((ChanceAction) action).getPercent(), rest);
+    }
+
+    private static void schedule(Player player, int delay, Action action) {
+        if (Bukkit.isPrimaryThread()) LLibrary.getActionScheduler().schedule(player, delay, action);
+        else Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> LLibrary.getActionScheduler().schedule(player, delay, action));
+    }
+
+    private static boolean hasPlaceholders(String text) {
+        return LLibrary.isPlaceholderAPIEnabled() && text.indexOf('%') >= 0;
+    }
+
+    /**
+     * The rest of a program, run after a delay.
+     */
+    private static final class DelayStep extends Action {
+
+        private final int ticks;
+        private final ActionProgram rest;
+
+        DelayStep(int ticks, ActionProgram rest) {
+            this.ticks = ticks;
+            this.rest = rest;
+        }
+
+        @Override
+        public void execute(Player player) {
+            if (!this.rest.isEmpty()) schedule(player, this.ticks, this.rest);
+        }
+    }
+
+    /**
+     * The rest of a program, run now and then again every interval until the count is reached.
+     */
+    private static final class RepeatStep extends Action {
+
+        private final int times;
+        private final int interval;
+        private final ActionProgram rest;
+
+        RepeatStep(int times, int interval, ActionProgram rest) {
+            this.times = times;
+            this.interval = interval;
+            this.rest = rest;
+        }
+
+        @Override
+        public void execute(Player player) {
+            this.rest.execute(player);
+            if (this.times > 1) schedule(player, this.interval, new RepeatStep(this.times - 1, this.interval, this.rest));
+        }
+    }
+
+    /**
+     * The rest of a program, run only with some chance.
+     */
+    private static final class ChanceStep extends Action {
+
+        private final double percent;
+        private final ActionProgram rest;
+
+        ChanceStep(double percent, ActionProgram rest) {
+            this.percent = percent;
+            this.rest = rest;
+        }
+
+        @Override
+        public void execute(Player player) {
+            if (ThreadLocalRandom.current().nextDouble(100) < this.percent) this.rest.execute(player);
+        }
+    }
+
+    /**
+     * The rest of a program, run on the main thread once a withdrawal went through.
+     */
+    private static final class PaymentStep extends Action {
+
+        private final TakeMoneyAction payment;
+        private final ActionProgram rest;
+
+        PaymentStep(TakeMoneyAction payment, ActionProgram rest) {
+            this.payment = payment;
+            this.rest = rest;
+        }
+
+        @Override
+        public void execute(Player player) {
+            this.payment.withdraw(player).thenAccept(success -> {
+                if (!success || this.rest.isEmpty() || !LLibrary.getInstance().isEnabled()) return;
+                Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+                    if (player.isOnline()) this.rest.execute(player);
+                });
+            });
+        }
+    }
+
+    /**
+     * Consecutive {@code [message]} lines sent as one message, each line after the first starting with a reset.
+     */
+    private static final class MessageBatch extends Action {
+
+        private static final String SEPARATOR = "\n" + ChatColor.RESET;
+
+        private final String[] lines;
+        private final boolean[] dynamic;
+        private final String constant;
+
+        MessageBatch(List<String> lines) {
+            this.lines = new String[lines.size()];
+            this.dynamic = new boolean[lines.size()];
+            boolean anyDynamic = false;
+            for (int i = 0; i < this.lines.length; i++) {
+                String line = lines.get(i);
+                this.dynamic[i] = hasPlaceholders(line);
+                this.lines[i] = this.dynamic[i] ? line : StringUtil.format(line, null);
+                anyDynamic |= this.dynamic[i];
+            }
+            this.constant = anyDynamic ? null : String.join(SEPARATOR, this.lines);
+        }
+
+        @Override
+        public void execute(Player player) {
+            if (this.constant != null) {
+                player.sendMessage(this.constant);
+                return;
+            }
+            StringBuilder message = new StringBuilder();
+            for (int i = 0; i < this.lines.length; i++) {
+                if (i > 0) message.append(SEPARATOR);
+                message.append(this.dynamic[i] ? StringUtil.format(this.lines[i], player) : this.lines[i]);
+            }
+            player.sendMessage(message.toString());
+        }
+    }
+
+    /**
+     * Consecutive {@code [mini-message]} lines sent as one component, each line wrapped so it keeps its own style.
+     */
+    private static final class MiniMessageBatch extends Action {
+
+        private final String[] lines;
+        private final Component[] components;
+        private final Component constant;
+
+        MiniMessageBatch(List<String> lines) {
+            this.lines = lines.toArray(new String[0]);
+            this.components = new Component[this.lines.length];
+            boolean anyDynamic = false;
+            for (int i = 0; i < this.lines.length; i++) {
+                if (hasPlaceholders(this.lines[i])) anyDynamic = true;
+                else this.components[i] = line(MiniMessage.miniMessage().deserialize(this.lines[i]));
+            }
+            this.constant = anyDynamic ? null : Component.join(JoinConfiguration.newlines(), this.components);
+        }
+
+        @Override
+        public void execute(Player player) {
+            Component message = this.constant;
+            if (message == null) {
+                Component[] components = new Component[this.lines.length];
+                for (int i = 0; i < components.length; i++) {
+                    components[i] = this.components[i] != null
+                            ? this.components[i]
+                            : line(MiniMessage.miniMessage().deserialize(PlaceholderAPI.setPlaceholders(player, this.lines[i])));
+                }
+                message = Component.join(JoinConfiguration.newlines(), components);
+            }
+            LLibrary.getAudiences().player(player).sendMessage(message);
+        }
+
+        private static Component line(Component component) {
+            return Component.text().append(component).build();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.lucfr1746.llibrary.action;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs delayed actions for players on a hashed timing wheel advanced once per tick.
+ * <p>
+ * The wheel has a fixed number of buckets, and a delayed action goes into the bucket of its deadline with the number of
+ * full turns left before it is due. Scheduling and cancelling are O(1), and each tick only walks one bucket.
+ * Every pending action of a player is also linked per player, so all of them are cancelled at once when the player quits.
+ * Everything here runs on the main thread.
+ */
+public final class ActionScheduler implements Runnable, Listener {
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ScheduledAction[] buckets = new ScheduledAction[WHEEL_SIZE];
+    private final Map<UUID, ScheduledAction> playerActions = new HashMap<>();
+    private final List<ScheduledAction> due = new ArrayList<>();
+    private long tick;
+    private int pending;
+    private BukkitTask task;
+
+    /**
+     * Starts advancing the wheel and listening for quits.
+     */
+    public void start() {
+        if (this.task != null) return;
+        this.task = Bukkit.getScheduler().runTaskTimer(LLibrary.getInstance(), this, 1L, 1L);
+        Bukkit.getPluginManager().registerEvents(this, LLibrary.getInstance());
+    }
+
+    /**
+     * Stops the wheel and drops every pending action.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        HandlerList.unregisterAll(this);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            for (ScheduledAction action = this.buckets[i]; action != null; action = action.next) {
+                action.cancelled = true;
+            }
+            this.buckets[i] = null;
+        }
+        this.playerActions.clear();
+        this.pending = 0;
+    }
+
+    /**
+     * Runs an action for a player after a delay.
+     * Must be called on the main thread.
+     * @param player The player.
+     * @param delay The delay in ticks, at least {@code 1}.
+     * @param action The action to run.
+     * @return The scheduled action, which can be cancelled.
+     */
+    public ScheduledAction schedule(Player player, int delay, Action action) {
+        int ticks = Math.max(1, delay);
+        ScheduledAction scheduled = new ScheduledAction(this, player, action);
+        scheduled.bucket = (int) ((this.tick + ticks) & WHEEL_MASK);
+        scheduled.rounds = (ticks - 1) / WHEEL_SIZE;
+
+        ScheduledAction head = this.buckets[scheduled.bucket];
+        scheduled.next = head;
+        if (head != null) head.prev = scheduled;
+        this.buckets[scheduled.bucket] = scheduled;
+
+        ScheduledAction playerHead = this.playerActions.put(player.getUniqueId(), scheduled);
+        scheduled.playerNext = playerHead;
+        if (playerHead != null) playerHead.playerPrev = scheduled;
+
+        this.pending++;
+        return scheduled;
+    }
+
+    /**
+     * Cancels every pending action of a player.
+     * @param playerId The UUID of the player.
+     */
+    public void cancelAll(UUID playerId) {
+        ScheduledAction action = this.playerActions.get(playerId);
+        while (action != null) {
+            ScheduledAction next = action.playerNext;
+            action.cancel();
+            action = next;
+        }
+    }
+
+    /**
+     * Gets the number of actions waiting to run.
+     * @return The pending action count.
+     */
+    public int getPending() {
+        return this.pending;
+    }
+
+    @Override
+    public void run() {
+        int bucket = (int) (++this.tick & WHEEL_MASK);
+        for (ScheduledAction action = this.buckets[bucket]; action != null; action = action.next) {
+            if (action.rounds > 0) action.rounds--;
+            else this.due.add(action);
+        }
+        if (this.due.isEmpty()) return;
+
+        for (ScheduledAction action : this.due) unlink(action);
+        // Running an action may schedule or cancel others, so the due actions are collected first.
+        for (ScheduledAction action : this.due) {
+            if (action.cancelled) continue;
+            action.cancelled = true;
+            if (action.player.isOnline()) action.action.execute(action.player);
+        }
+        this.due.clear();
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        cancelAll(event.getPlayer().getUniqueId());
+    }
+
+    private void unlink(ScheduledAction action) {
+        if (action.bucket < 0) return;
+        if (action.prev != null) action.prev.next = action.next;
+        else this.buckets[action.bucket] = action.next;
+        if (action.next != null) action.next.prev = action.prev;
+        action.prev = null;
+        action.next = null;
+        action.bucket = -1;
+
+        if (action.playerPrev != null) action.playerPrev.playerNext = action.playerNext;
+        else if (action.playerNext != null) this.playerActions.put(action.player.getUniqueId(), action.playerNext);
+        else this.playerActions.remove(action.player.getUniqueId());
+        if (action.playerNext != null) action.playerNext.playerPrev = action.playerPrev;
+        action.playerPrev = null;
+        action.playerNext = null;
+
+        this.pending--;
+    }
+
+    /**
+     * An action waiting in the wheel.
+     */
+    public static final class ScheduledAction {
+
+        private final ActionScheduler scheduler;
+        private final Player player;
+        private final Action action;
+        private int bucket;
+        private int rounds;
+        private boolean cancelled;
+        private ScheduledAction prev;
+        private ScheduledAction next;
+        private ScheduledAction playerPrev;
+        private ScheduledAction playerNext;
+
+        private ScheduledAction(ActionScheduler scheduler, Player player, Action action) {
+            this.scheduler = scheduler;
+            this.player = player;
+            this.action = action;
+        }
+
+        /**
+         * Cancels the action if it did not run yet.
+         * Must be called on the main thread.
+         */
+        public void cancel() {
+            if (this.cancelled) return;
+            this.cancelled = true;
+            this.scheduler.unlink(this);
+        }
+
+        /**
+         * Checks whether the action was cancelled or already ran.
+         * @return {@code true} if the action will not run anymore.
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+}
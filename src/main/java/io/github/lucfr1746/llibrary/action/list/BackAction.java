@@ -0,0 +1,22 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents an action that takes a player back to the menu they came from.
+ * This action uses the navigation stack of the InventoryManager, and closes the menu when there is nothing to go back to.
+ */
+public class BackAction extends Action {
+
+    /**
+     * Executes the action by reopening the previous menu of the specified player.
+     *
+     * @param player The player going back.
+     */
+    @Override
+    public void execute(Player player) {
+        if (!LLibrary.getInventoryManager().back(player)) player.closeInventory();
+    }
+}
@@ -1,7 +1,6 @@
 package io.github.lucfr1746.llibrary.action.list;
 
 import io.github.lucfr1746.llibrary.action.Action;
-import io.github.lucfr1746.llibrary.util.helper.StringUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -11,6 +10,7 @@ import org.bukkit.entity.Player;
 public class BroadcastAction extends Action {
 
     private final String message;
+    private final BroadcastMessage broadcastMessage;
 
     /**
      * Constructs a BroadcastAction with the specified message.
@@ -18,6 +18,16 @@ public class BroadcastAction extends Action {
      */
     public BroadcastAction(String message) {
         this.message = message;
+        this.broadcastMessage = new BroadcastMessage(message);
+    }
+
+    /**
+     * Allows the placeholders of a PlaceholderAPI expansion to be resolved off the main thread in broadcasts.
+     * Placeholders of other expansions are resolved on the main thread, only their formatting runs off it.
+     * @param identifier The identifier of the expansion, e.g. {@code server}.
+     */
+    public static void registerThreadSafeExpansion(String identifier) {
+        BroadcastMessage.registerThreadSafeExpansion(identifier);
     }
 
     /**
@@ -30,10 +40,11 @@ public class BroadcastAction extends Action {
 
     /**
      * Executes the broadcast action, sending the formatted message to all online players.
+     * Messages with placeholders are formatted off the main thread and always sent on the next tick.
      * @param target The player triggering the action (not directly used in this implementation).
      */
     @Override
     public void execute(Player target) {
-        Bukkit.getOnlinePlayers().forEach(player -> player.sendMessage(StringUtil.format(this.message, player)));
+        this.broadcastMessage.send(Bukkit.getOnlinePlayers());
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.util.helper.StringUtil;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * A broadcast message split once into its constant text and its placeholders.
+ * <p>
+ * A message without placeholders is formatted once and sent to everyone right away.
+ * Otherwise the placeholders are resolved per recipient on the main thread, except those of expansions registered as
+ * thread-safe, and the formatting runs in parallel off the main thread. Recipients whose placeholders resolve to the
+ * same text share one formatting pass. The messages are then sent in a single task on the next tick,
+ * whatever the number of recipients, so a broadcast always arrives after the actions that follow it.
+ */
+final class BroadcastMessage {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%([^%\\s_]+)_?[^%\\s]*%");
+    private static final Set<String> THREAD_SAFE_EXPANSIONS = ConcurrentHashMap.newKeySet();
+
+    private final String[] parts;
+    private final String[] expansions;
+    private final String constant;
+
+    /**
+     * Splits a message.
+     * @param message The raw message.
+     */
+    BroadcastMessage(String message) {
+        List<String> parts = new ArrayList<>();
+        List<String> expansions = new ArrayList<>();
+        if (LLibrary.isPlaceholderAPIEnabled()) {
+            Matcher matcher = PLACEHOLDER.matcher(message);
+            int start = 0;
+            while (matcher.find()) {
+                parts.add(message.substring(start, matcher.start()));
+                parts.add(matcher.group());
+                expansions.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                start = matcher.end();
+            }
+            parts.add(message.substring(start));
+        } else {
+            parts.add(message);
+        }
+        // Even indexes hold constant text, odd indexes hold placeholders.
+        this.parts = parts.toArray(new String[0]);
+        this.expansions = expansions.toArray(new String[0]);
+        this.constant = this.parts.length == 1 ? StringUtil.format(message, null) : null;
+    }
+
+    /**
+     * Allows the placeholders of an expansion to be resolved off the main thread.
+     * @param identifier The identifier of the expansion, e.g. {@code server}.
+     */
+    static void registerThreadSafeExpansion(String identifier) {
+        THREAD_SAFE_EXPANSIONS.add(identifier.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Sends the message to every recipient, formatted for each of them.
+     * Must be called on the main thread.
+     * @param recipients The players receiving the message.
+     */
+    void send(Collection<? extends Player> recipients) {
+        if (this.constant != null) {
+            for (Player player : recipients) player.sendMessage(this.constant);
+            return;
+        }
+
+        List<Player> players = List.copyOf(recipients);
+        if (players.isEmpty()) return;
+        boolean[] threadSafe = new boolean[this.expansions.length];
+        boolean anyMainThread = false;
+        for (int i = 0; i < threadSafe.length; i++) {
+            threadSafe[i] = THREAD_SAFE_EXPANSIONS.contains(this.expansions[i]);
+            anyMainThread |= !threadSafe[i];
+        }
+
+        // Placeholders of expansions not known to be thread-safe are resolved here, on the main thread.
+        String[][] resolved = new String[players.size()][];
+        if (anyMainThread) {
+            for (int i = 0; i < resolved.length; i++) {
+                String[] values = new String[threadSafe.length];
+                for (int j = 0; j < values.length; j++) {
+                    if (!threadSafe[j]) values[j] = PlaceholderAPI.setPlaceholders(players.get(i), this.parts[2 * j + 1]);
+                }
+                resolved[i] = values;
+            }
+        }
+
+        Map<String, String> formatted = new ConcurrentHashMap<>();
+        CompletableFuture.supplyAsync(() -> {
+            String[] messages = new String[resolved.length];
+            IntStream.range(0, messages.length).parallel()
+                    .forEach(i -> messages[i] = format(players.get(i), resolved[i], threadSafe, formatted));
+            return messages;
+        }).whenComplete((messages, throwable) -> {
+            if (throwable != null) {
+                LLibrary.getPluginLogger().error("Failed to format a broadcast: " + throwable.getMessage());
+                return;
+            }
+            if (!LLibrary.getInstance().isEnabled()) return;
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+                for (int i = 0; i < messages.length; i++) {
+                    Player player = players.get(i);
+                    if (player.isOnline()) player.sendMessage(messages[i]);
+                }
+            });
+        });
+    }
+
+    private String format(Player player, String[] values, boolean[] threadSafe, Map<String, String> formatted) {
+        StringBuilder text = new StringBuilder(this.parts[0]);
+        for (int j = 0; j < threadSafe.length; j++) {
+            text.append(threadSafe[j] ? PlaceholderAPI.setPlaceholders(player, this.parts[2 * j + 1]) : values[j]);
+            text.append(this.parts[2 * j + 2]);
+        }
+        return formatted.computeIfAbsent(text.toString(), raw -> StringUtil.format(raw, null));
+    }
+}
@@ -1,7 +1,6 @@
 package io.github.lucfr1746.llibrary.action.list;
 
 import io.github.lucfr1746.llibrary.action.Action;
-import io.github.lucfr1746.llibrary.util.helper.StringUtil;
 import org.bukkit.entity.Player;
 
 /**
@@ -10,6 +9,7 @@ import org.bukkit.entity.Player;
 public class BroadcastWorldAction extends Action {
 
     private final String message;
+    private final BroadcastMessage broadcastMessage;
 
     /**
      * Constructs a BroadcastWorldAction with the specified message.
@@ -17,6 +17,7 @@ public class BroadcastWorldAction extends Action {
      */
     public BroadcastWorldAction(String message) {
         this.message = message;
+        this.broadcastMessage = new BroadcastMessage(message);
     }
 
     /**
@@ -29,12 +30,11 @@ public class BroadcastWorldAction extends Action {
 
     /**
      * Executes the broadcast world action, sending the message to all players in the same world as the target.
+     * Messages with placeholders are formatted off the main thread and always sent on the next tick.
      * @param target The player triggering the action.
      */
     @Override
     public void execute(Player target) {
-        for (final Player broadcastTarget : target.getWorld().getPlayers()) {
-            broadcastTarget.sendMessage(StringUtil.format(this.message, broadcastTarget));
-        }
+        this.broadcastMessage.send(target.getWorld().getPlayers());
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import io.github.lucfr1746.llibrary.action.ActionProgram;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a random branch in an action list: the actions after it only run with a given chance.
+ * The branch only takes effect in a compiled {@link ActionProgram}, on its own this action only logs a warning.
+ */
+public class ChanceAction extends Action {
+
+    private final double percent;
+    private boolean warned;
+
+    /**
+     * Constructs a ChanceAction with the specified chance.
+     *
+     * @param percent The chance for the following actions to run, between 0 and 100.
+     */
+    public ChanceAction(double percent) {
+        if (percent < 0 || percent > 100) throw new IllegalArgumentException("The chance must be between 0 and 100 -> " + percent);
+        this.percent = percent;
+    }
+
+    /**
+     * Gets the chance for the following actions to run.
+     *
+     * @return The chance, between 0 and 100.
+     */
+    public double getPercent() {
+        return this.percent;
+    }
+
+    @Override
+    public void execute(Player target) {
+        if (this.warned) return;
+        this.warned = true;
+        LLibrary.getPluginLogger().warning("[chance] only works in a compiled action list, the actions after it were not affected. "
+                + "Compile the list with ActionLoader#compile.");
+    }
+}
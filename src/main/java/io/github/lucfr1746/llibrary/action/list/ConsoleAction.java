@@ -11,7 +11,7 @@ import org.bukkit.entity.Player;
  */
 public class ConsoleAction extends Action {
 
-    private String command;
+    private final String command;
 
     /**
      * Constructs a new ConsoleAction with the specified command.
@@ -38,9 +38,10 @@ public class ConsoleAction extends Action {
      */
     @Override
     public void execute(Player target) {
+        String command = this.command;
         if (LLibrary.isPlaceholderAPIEnabled()) {
-            this.command = PlaceholderAPI.setPlaceholders(target, this.command);
+            command = PlaceholderAPI.setPlaceholders(target, command);
         }
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), this.command);
+        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
     }
 }
\ No newline at end of file
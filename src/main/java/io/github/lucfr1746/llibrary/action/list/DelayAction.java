@@ -0,0 +1,43 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import io.github.lucfr1746.llibrary.action.ActionProgram;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a pause in an action list: the actions after it run once the delay is over.
+ * The delay only takes effect in a compiled {@link ActionProgram}, on its own this action only logs a warning.
+ */
+public class DelayAction extends Action {
+
+    private final int ticks;
+    private boolean warned;
+
+    /**
+     * Constructs a DelayAction with the specified delay.
+     *
+     * @param ticks The delay in ticks.
+     */
+    public DelayAction(int ticks) {
+        if (ticks < 1) throw new IllegalArgumentException("The delay must be positive -> " + ticks);
+        this.ticks = ticks;
+    }
+
+    /**
+     * Gets the delay.
+     *
+     * @return The delay in ticks.
+     */
+    public int getTicks() {
+        return this.ticks;
+    }
+
+    @Override
+    public void execute(Player target) {
+        if (this.warned) return;
+        this.warned = true;
+        LLibrary.getPluginLogger().warning("[delay] only works in a compiled action list, the actions after it were not affected. "
+                + "Compile the list with ActionLoader#compile.");
+    }
+}
@@ -11,7 +11,7 @@ import org.bukkit.entity.Player;
  */
 public class MiniMessageAction extends Action {
 
-    private String message;
+    private final String message;
 
     /**
      * Constructs a MiniMessageAction with the specified message.
@@ -39,9 +39,10 @@ public class MiniMessageAction extends Action {
      */
     @Override
     public void execute(Player target) {
+        String message = this.message;
         if (LLibrary.isPlaceholderAPIEnabled()) {
-            this.message = PlaceholderAPI.setPlaceholders(target, this.message);
+            message = PlaceholderAPI.setPlaceholders(target, message);
         }
-        LLibrary.getAudiences().player(target).sendMessage(MiniMessage.miniMessage().deserialize(this.message));
+        LLibrary.getAudiences().player(target).sendMessage(MiniMessage.miniMessage().deserialize(message));
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents an action submitting a money transaction to the {@link io.github.lucfr1746.llibrary.economy.EconomyQueue}.
+ * The transaction is applied later, off the main thread, and the deny actions run if it fails.
+ */
+public abstract class MoneyAction extends Action {
+
+    private final Double amount;
+    private List<Action> denyHandler = List.of();
+
+    /**
+     * Constructs a MoneyAction with the specified amount of money.
+     *
+     * @param amount The amount of money.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    protected MoneyAction(Double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative!");
+        }
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the amount of money of the transaction.
+     *
+     * @return The amount of money.
+     */
+    public Double getAmount() {
+        return this.amount;
+    }
+
+    /**
+     * Sets the actions to execute when the transaction fails.
+     *
+     * @param denyHandler The list of actions to execute on failure.
+     * @return The current action instance.
+     */
+    public MoneyAction setDenyHandler(List<Action> denyHandler) {
+        this.denyHandler = denyHandler == null ? List.of() : List.copyOf(denyHandler);
+        return this;
+    }
+
+    /**
+     * Gets the actions that execute when the transaction fails.
+     *
+     * @return A list of denial actions.
+     */
+    public List<Action> getDenyHandler() {
+        return this.denyHandler;
+    }
+
+    /**
+     * Runs the deny actions on the main thread once a transaction failed.
+     *
+     * @param target      The player of the transaction.
+     * @param transaction The pending transaction.
+     */
+    protected void handleResult(Player target, CompletableFuture<Boolean> transaction) {
+        transaction.thenAccept(success -> {
+            if (success || this.denyHandler.isEmpty() || !LLibrary.getInstance().isEnabled()) return;
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+                if (!target.isOnline()) return;
+                for (Action action : this.denyHandler) action.execute(target);
+            });
+        });
+    }
+}
@@ -22,7 +22,8 @@ public class OpenMenuAction extends Action {
     }
 
     /**
-     * Executes the action by opening the menu associated with the given ID for the specified player.
+     * Executes the action by queueing the menu associated with the given ID for the specified player.
+     * Opens queued during the same tick are coalesced per player and spread over ticks.
      *
      * @param player The player who will see the opened menu.
      */
@@ -32,6 +33,6 @@ public class OpenMenuAction extends Action {
             LLibrary.getPluginLogger().warning("Menu ID is null or empty. Cannot open menu.");
             return;
         }
-        LLibrary.getInventoryManager().openGUI(menuID, player);
+        LLibrary.getInventoryManager().queueOpen(menuID, player);
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package io.github.lucfr1746.llibrary.action.list;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import io.github.lucfr1746.llibrary.action.ActionProgram;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a loop in an action list: the actions after it run several times, a fixed number of ticks apart.
+ * The loop only takes effect in a compiled {@link ActionProgram}, on its own this action only logs a warning.
+ */
+public class RepeatAction extends Action {
+
+    private final int times;
+    private final int interval;
+    private boolean warned;
+
+    /**
+     * Constructs a RepeatAction with the specified count and interval.
+     *
+     * @param times    How many times the following actions run.
+     * @param interval The number of ticks between two runs.
+     */
+    public RepeatAction(int times, int interval) {
+        if (times < 1) throw new IllegalArgumentException("The repeat count must be positive -> " + times);
+        if (interval < 1) throw new IllegalArgumentException("The repeat interval must be positive -> " + interval);
+        this.times = times;
+        this.interval = interval;
+    }
+
+    /**
+     * Gets how many times the following actions run.
+     *
+     * @return The repeat count.
+     */
+    public int getTimes() {
+        return this.times;
+    }
+
+    /**
+     * Gets the number of ticks between two runs.
+     *
+     * @return The interval in ticks.
+     */
+    public int getInterval() {
+        return this.interval;
+    }
+
+    @Override
+    public void execute(Player target) {
+        if (this.warned) return;
+        this.warned = true;
+        LLibrary.getPluginLogger().warning("[repeat] only works in a compiled action list, the actions after it were not affected. "
+                + "Compile the list with ActionLoader#compile.");
+    }
+}
@@ -1,15 +1,14 @@
 package io.github.lucfr1746.llibrary.action.list;
 
 import io.github.lucfr1746.llibrary.LLibrary;
-import io.github.lucfr1746.llibrary.action.Action;
 import org.bukkit.entity.Player;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Represents an action that deducts money from a player's balance.
  */
-public class TakeMoneyAction extends Action {
-
-    private final Double amount;
+public class TakeMoneyAction extends MoneyAction {
 
     /**
      * Constructs a TakeMoneyAction with a specified amount to deduct.
@@ -18,33 +17,30 @@ public class TakeMoneyAction extends Action {
      * @throws IllegalArgumentException If the amount is negative.
      */
     public TakeMoneyAction(Double amount) {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Amount cannot be negative!");
-        }
-        this.amount = amount;
+        super(amount);
     }
 
     /**
-     * Gets the amount of money to be deducted.
+     * Executes the action, queueing a withdrawal from the target player's balance.
+     * The deny actions run if the player cannot afford it or no economy system is hooked.
      *
-     * @return The amount of money.
+     * @param target The player whose balance will be deducted.
      */
-    public Double getAmount() {
-        return amount;
+    @Override
+    public void execute(Player target) {
+        withdraw(target);
     }
 
     /**
-     * Executes the action, withdrawing money from the target player's balance.
-     * If the economy system is not available, an exception is thrown.
+     * Queues the withdrawal from the target player's balance, running the deny actions if it fails.
+     * Compiled action lists use this to only run the actions after a purchase once it went through.
      *
      * @param target The player whose balance will be deducted.
-     * @throws IllegalStateException If there is no economy system hooked.
+     * @return A future completed off the main thread with {@code true} if the money was taken.
      */
-    @Override
-    public void execute(Player target) {
-        if (LLibrary.getEconomy() == null) {
-            throw new IllegalStateException("There is no Economy API hooked!");
-        }
-        LLibrary.getEconomy().withdrawPlayer(target, this.amount);
+    public CompletableFuture<Boolean> withdraw(Player target) {
+        CompletableFuture<Boolean> transaction = LLibrary.getEconomyQueue().withdraw(target, getAmount());
+        handleResult(target, transaction);
+        return transaction;
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package io.github.lucfr1746.llibrary.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * The economy the {@link EconomyQueue} applies transactions to.
+ * <p>
+ * Transactions are applied from the economy worker thread, so implementations must be thread-safe.
+ */
+public interface EconomyBackend {
+
+    /**
+     * Adds money to a player's balance.
+     * @param player The player.
+     * @param amount The positive amount to add.
+     * @return {@code true} if the money was added.
+     */
+    boolean deposit(OfflinePlayer player, double amount);
+
+    /**
+     * Removes money from a player's balance.
+     * @param player The player.
+     * @param amount The positive amount to remove.
+     * @return {@code true} if the money was removed, {@code false} if the player cannot afford it.
+     */
+    boolean withdraw(OfflinePlayer player, double amount);
+}
@@ -0,0 +1,224 @@
+package io.github.lucfr1746.llibrary.economy;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.OfflinePlayer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies money transactions to an {@link EconomyBackend} in batches, off the main thread.
+ * <p>
+ * A player's transactions are applied in the order they were submitted. Consecutive transactions of the same kind
+ * within the same window are summed, then a single worker thread applies one deposit or withdrawal per run,
+ * so a withdrawal never benefits from a deposit submitted after it. If a summed transaction fails, e.g. because
+ * a player cannot afford all of their purchases at once, its transactions are applied one by one in the order
+ * they were submitted, so each future is completed with the result of its own transaction.
+ */
+public final class EconomyQueue {
+
+    private final Object lock = new Object();
+    private final AtomicLong failures = new AtomicLong();
+    private Map<UUID, PendingTransactions> pending = new HashMap<>();
+    private boolean flushScheduled;
+    private volatile EconomyBackend backend;
+    private volatile long windowMillis = 250L;
+    private ScheduledExecutorService worker;
+
+    /**
+     * Starts the worker thread.
+     */
+    public void start() {
+        synchronized (this.lock) {
+            if (this.worker != null) return;
+            this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "LLibrary-Economy");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Applies every pending transaction, then stops the worker thread.
+     */
+    public void stop() {
+        ScheduledExecutorService worker;
+        synchronized (this.lock) {
+            worker = this.worker;
+            this.worker = null;
+            this.flushScheduled = false;
+        }
+        if (worker == null) return;
+        worker.execute(this::flush);
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS))
+                LLibrary.getPluginLogger().warning("Timed out while applying the pending economy transactions.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sets the economy transactions are applied to.
+     * @param backend The economy, or null if there is none, in which case every transaction fails.
+     */
+    public void setBackend(EconomyBackend backend) {
+        this.backend = backend;
+    }
+
+    public EconomyBackend getBackend() {
+        return this.backend;
+    }
+
+    /**
+     * Sets how long transactions are collected before a batch is applied.
+     * @param millis The window in milliseconds, {@code 250} by default.
+     */
+    public void setWindow(long millis) {
+        this.windowMillis = Math.max(0L, millis);
+    }
+
+    public long getWindow() {
+        return this.windowMillis;
+    }
+
+    /**
+     * Gets the number of transactions that failed.
+     * @return The failed transaction count since the server started.
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * Queues money to add to a player's balance.
+     * @param player The player.
+     * @param amount The positive amount to add.
+     * @return A future completed on the worker thread with {@code true} if the money was added.
+     */
+    public CompletableFuture<Boolean> deposit(OfflinePlayer player, double amount) {
+        return submit(player, amount, true);
+    }
+
+    /**
+     * Queues money to remove from a player's balance.
+     * @param player The player.
+     * @param amount The positive amount to remove.
+     * @return A future completed on the worker thread with {@code true} if the money was removed.
+     */
+    public CompletableFuture<Boolean> withdraw(OfflinePlayer player, double amount) {
+        return submit(player, amount, false);
+    }
+
+    private CompletableFuture<Boolean> submit(OfflinePlayer player, double amount, boolean deposit) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        synchronized (this.lock) {
+            if (this.worker == null || this.backend == null) {
+                this.failures.incrementAndGet();
+                future.complete(false);
+                return future;
+            }
+            PendingTransactions transactions = this.pending.computeIfAbsent(player.getUniqueId(), id -> new PendingTransactions(player));
+            transactions.add(amount, deposit, future);
+            if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                this.worker.schedule(this::flush, this.windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<UUID, PendingTransactions> batch;
+        synchronized (this.lock) {
+            batch = this.pending;
+            this.pending = new HashMap<>();
+            this.flushScheduled = false;
+        }
+        EconomyBackend backend = this.backend;
+        for (PendingTransactions transactions : batch.values()) {
+            for (Transactions run : transactions.runs) apply(backend, transactions.player, run);
+        }
+    }
+
+    private void apply(EconomyBackend backend, OfflinePlayer player, Transactions transactions) {
+        int size = transactions.futures.size();
+        boolean deposit = transactions.deposit;
+        if (apply(backend, player, transactions.total, deposit)) {
+            for (CompletableFuture<Boolean> future : transactions.futures) future.complete(true);
+            return;
+        }
+        if (size == 1) {
+            complete(transactions.futures.getFirst(), false);
+            return;
+        }
+        // The sum failed, each transaction gets its own chance so the affordable ones still go through.
+        for (int i = 0; i < size; i++) {
+            complete(transactions.futures.get(i), apply(backend, player, transactions.amounts.get(i), deposit));
+        }
+    }
+
+    private boolean apply(EconomyBackend backend, OfflinePlayer player, double amount, boolean deposit) {
+        if (backend == null) return false;
+        try {
+            return deposit ? backend.deposit(player, amount) : backend.withdraw(player, amount);
+        } catch (RuntimeException e) {
+            LLibrary.getPluginLogger().error("Failed to " + (deposit ? "deposit " : "withdraw ") + amount + " for " + player.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void complete(CompletableFuture<Boolean> future, boolean success) {
+        if (!success) this.failures.incrementAndGet();
+        future.complete(success);
+    }
+
+    /**
+     * The transactions of a player collected during the current window, as runs of the same kind in submission order.
+     */
+    private static final class PendingTransactions {
+
+        private final OfflinePlayer player;
+        private final List<Transactions> runs = new ArrayList<>(1);
+
+        PendingTransactions(OfflinePlayer player) {
+            this.player = player;
+        }
+
+        void add(double amount, boolean deposit, CompletableFuture<Boolean> future) {
+            Transactions last = this.runs.isEmpty() ? null : this.runs.getLast();
+            if (last == null || last.deposit != deposit) {
+                last = new Transactions(deposit);
+                this.runs.add(last);
+            }
+            last.add(amount, future);
+        }
+    }
+
+    /**
+     * Consecutive deposits or consecutive withdrawals of a player, in the order they were submitted.
+     */
+    private static final class Transactions {
+
+        private final boolean deposit;
+        private final List<Double> amounts = new ArrayList<>(1);
+        private final List<CompletableFuture<Boolean>> futures = new ArrayList<>(1);
+        private double total;
+
+        Transactions(boolean deposit) {
+            this.deposit = deposit;
+        }
+
+        void add(double amount, CompletableFuture<Boolean> future) {
+            this.amounts.add(amount);
+            this.futures.add(future);
+            this.total += amount;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.lucfr1746.llibrary.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link EconomyBackend} keeping balances in memory, for tests and benchmarks without an economy plugin.
+ * Balances start at zero and are lost when the server stops.
+ */
+public final class InMemoryEconomyBackend implements EconomyBackend {
+
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the balance of a player.
+     * @param playerId The UUID of the player.
+     * @return The balance.
+     */
+    public double getBalance(UUID playerId) {
+        return this.balances.getOrDefault(playerId, 0D);
+    }
+
+    /**
+     * Sets the balance of a player.
+     * @param playerId The UUID of the player.
+     * @param balance The new balance.
+     */
+    public void setBalance(UUID playerId, double balance) {
+        this.balances.put(playerId, balance);
+    }
+
+    @Override
+    public boolean deposit(OfflinePlayer player, double amount) {
+        this.balances.merge(player.getUniqueId(), amount, Double::sum);
+        return true;
+    }
+
+    @Override
+    public boolean withdraw(OfflinePlayer player, double amount) {
+        boolean[] withdrawn = new boolean[1];
+        this.balances.compute(player.getUniqueId(), (id, balance) -> {
+            double current = balance == null ? 0D : balance;
+            if (current < amount) return balance;
+            withdrawn[0] = true;
+            return current - amount;
+        });
+        return withdrawn[0];
+    }
+}
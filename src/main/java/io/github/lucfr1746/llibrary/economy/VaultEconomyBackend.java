@@ -0,0 +1,30 @@
+package io.github.lucfr1746.llibrary.economy;
+
+import net.milkbowl.vault.economy.Economy;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * An {@link EconomyBackend} backed by the economy plugin hooked through Vault.
+ */
+public final class VaultEconomyBackend implements EconomyBackend {
+
+    private final Economy economy;
+
+    /**
+     * Creates a backend for a Vault economy.
+     * @param economy The Vault economy.
+     */
+    public VaultEconomyBackend(Economy economy) {
+        this.economy = economy;
+    }
+
+    @Override
+    public boolean deposit(OfflinePlayer player, double amount) {
+        return this.economy.depositPlayer(player, amount).transactionSuccess();
+    }
+
+    @Override
+    public boolean withdraw(OfflinePlayer player, double amount) {
+        return this.economy.withdrawPlayer(player, amount).transactionSuccess();
+    }
+}
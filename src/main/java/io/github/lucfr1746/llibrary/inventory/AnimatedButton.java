@@ -0,0 +1,88 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * A button cycling through a fixed list of icons.
+ * <p>
+ * The frames are created once and shared by every viewer. Open menus are animated by the
+ * menu ticker, which only writes the animated slots whose frame changed on the current tick.
+ */
+public class AnimatedButton extends InventoryButton {
+
+    private ItemStack[] frames = new ItemStack[0];
+    private int frameInterval = 1;
+
+    /**
+     * Sets the icons the button cycles through, in order.
+     * The frames are shared by every viewer, so they must not be modified afterward.
+     * @param frames The frames.
+     * @return The current AnimatedButton instance.
+     */
+    public AnimatedButton frames(List<ItemStack> frames) {
+        this.frames = frames.stream().map(ItemStack::clone).toArray(ItemStack[]::new);
+        staticIcon(true);
+        return this;
+    }
+
+    /**
+     * Sets how long each frame is shown.
+     * @param ticks The duration of a frame in ticks.
+     * @return The current AnimatedButton instance.
+     */
+    public AnimatedButton frameInterval(int ticks) {
+        this.frameInterval = Math.max(1, ticks);
+        return this;
+    }
+
+    /**
+     * Gets how long each frame is shown.
+     * @return The duration of a frame in ticks.
+     */
+    public int getFrameInterval() {
+        return this.frameInterval;
+    }
+
+    /**
+     * Gets the number of frames.
+     * @return The frame count.
+     */
+    public int getFrameCount() {
+        return this.frames.length;
+    }
+
+    /**
+     * Checks whether the frame of this button changes on a tick.
+     * @param tick The tick of the menu ticker.
+     * @return {@code true} if a new frame starts on this tick.
+     */
+    public boolean isFrameChanging(long tick) {
+        return this.frames.length > 1 && tick % this.frameInterval == 0;
+    }
+
+    /**
+     * Gets the frame shown on a tick.
+     * @param tick The tick of the menu ticker.
+     * @return The shared frame, or {@code null} if the button has no frames.
+     */
+    public ItemStack getFrame(long tick) {
+        if (this.frames.length == 0) return null;
+        return this.frames[(int) ((tick / this.frameInterval) % this.frames.length)];
+    }
+
+    @Override
+    public ItemStack getIcon(Player player) {
+        if (this.frames.length == 0) return super.getIcon(player);
+        return getFrame(LLibrary.getInventoryManager().getTicker().getTick());
+    }
+
+    @Override
+    public AnimatedButton clone() {
+        // The frames are never modified once set, so the clone shares them.
+        return (AnimatedButton) super.clone();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An immutable copy of a click, safe to read from any thread.
+ * <p>
+ * Asynchronous button handlers receive a snapshot instead of the {@link InventoryClickEvent},
+ * which must never be touched off the main thread.
+ */
+public final class ClickSnapshot {
+
+    private final UUID playerId;
+    private final String playerName;
+    private final String menuId;
+    private final String buttonId;
+    private final ClickType click;
+    private final InventoryAction action;
+    private final int rawSlot;
+    private final int hotbarButton;
+    private final ItemStack currentItem;
+    private final ItemStack cursor;
+
+    private ClickSnapshot(InventoryClickEvent event, String menuId, String buttonId) {
+        this.playerId = event.getWhoClicked().getUniqueId();
+        this.playerName = event.getWhoClicked().getName();
+        this.menuId = menuId;
+        this.buttonId = buttonId;
+        this.click = event.getClick();
+        this.action = event.getAction();
+        this.rawSlot = event.getRawSlot();
+        this.hotbarButton = event.getHotbarButton();
+        this.currentItem = event.getCurrentItem() == null ? null : event.getCurrentItem().clone();
+        this.cursor = event.getCursor() == null ? null : event.getCursor().clone();
+    }
+
+    /**
+     * Takes a snapshot of a click. Must be called on the main thread.
+     * @param event The click event.
+     * @param session The session that was clicked.
+     * @param button The clicked button.
+     * @return The snapshot.
+     */
+    static ClickSnapshot of(InventoryClickEvent event, MenuSession session, InventoryButton button) {
+        return new ClickSnapshot(event, session.getTemplate().getId(), button.getId());
+    }
+
+    public UUID getPlayerId() {
+        return this.playerId;
+    }
+
+    public String getPlayerName() {
+        return this.playerName;
+    }
+
+    public String getMenuId() {
+        return this.menuId;
+    }
+
+    public String getButtonId() {
+        return this.buttonId;
+    }
+
+    public ClickType getClick() {
+        return this.click;
+    }
+
+    public InventoryAction getAction() {
+        return this.action;
+    }
+
+    public int getRawSlot() {
+        return this.rawSlot;
+    }
+
+    /**
+     * Gets the number key pressed for a {@link ClickType#NUMBER_KEY} click.
+     * @return The hotbar slot, or {@code -1} for other clicks.
+     */
+    public int getHotbarButton() {
+        return this.hotbarButton;
+    }
+
+    /**
+     * Gets a copy of the clicked item.
+     * @return The item, or {@code null} if the slot was empty.
+     */
+    public @Nullable ItemStack getCurrentItem() {
+        return this.currentItem == null ? null : this.currentItem.clone();
+    }
+
+    /**
+     * Gets a copy of the item on the cursor.
+     * @return The item, or {@code null} if the cursor was empty.
+     */
+    public @Nullable ItemStack getCursor() {
+        return this.cursor == null ? null : this.cursor.clone();
+    }
+}
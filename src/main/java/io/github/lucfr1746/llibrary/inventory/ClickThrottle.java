@@ -0,0 +1,145 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.entity.Player;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how fast players can click the buttons of LLibrary menus.
+ * <p>
+ * Every player owns a token bucket packed into a single {@link AtomicLong}:
+ * the upper bits hold the time of the last refill and the lower bits the tokens left, in thousandths of a token.
+ * A click takes one token, and buttons can add their own cooldown on top of the bucket.
+ */
+public final class ClickThrottle {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long TOKEN = 1000;
+
+    private final Map<UUID, ClickState> states = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final long epoch = System.nanoTime();
+    private volatile long capacity = 10 * TOKEN;
+    private volatile double refillPerMilli = 10D;
+
+    /**
+     * Sets the click limit applied to every player.
+     * @param burst The number of clicks a player can make at once, at most 1000.
+     * @param clicksPerSecond The number of clicks given back every second.
+     */
+    public void setLimit(int burst, double clicksPerSecond) {
+        if (burst < 1 || burst * TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("The burst must be between 1 and " + TOKEN_MASK / TOKEN + " -> " + burst);
+        }
+        if (clicksPerSecond <= 0) {
+            throw new IllegalArgumentException("The clicks per second must be positive -> " + clicksPerSecond);
+        }
+        this.capacity = burst * TOKEN;
+        this.refillPerMilli = clicksPerSecond * TOKEN / 1000D;
+    }
+
+    /**
+     * Takes a click from the player's bucket.
+     * @param player The clicking player.
+     * @return {@code true} if the click is allowed, {@code false} if it was throttled.
+     */
+    public boolean tryAcquire(Player player) {
+        AtomicLong bucket = state(player).bucket;
+        long now = now();
+        long capacity = this.capacity;
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long time = Math.max(now, last);
+            long elapsed = time - last;
+            long tokens = Math.min(capacity, (state & TOKEN_MASK) + (long) (elapsed * this.refillPerMilli));
+            if (tokens < TOKEN) {
+                this.hits.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(state, (time << TOKEN_BITS) | (tokens - TOKEN))) return true;
+        }
+    }
+
+    /**
+     * Checks and restarts the cooldown of a button for a player.
+     * Must be called on the main thread.
+     * @param player The clicking player.
+     * @param button The clicked button.
+     * @return {@code true} if the button is not cooling down.
+     */
+    public boolean tryClick(Player player, InventoryButton button) {
+        int cooldown = button.getClickCooldown();
+        if (cooldown <= 0) return true;
+
+        Map<InventoryButton, Long> cooldowns = state(player).cooldowns;
+        long now = now();
+        Long readyAt = cooldowns.get(button);
+        if (readyAt != null && readyAt > now) {
+            this.hits.increment();
+            return false;
+        }
+        cooldowns.put(button, now + cooldown * 50L);
+        return true;
+    }
+
+    /**
+     * Drops the button cooldowns of a player that are over, e.g. when they close a menu.
+     * Cooldowns still running are kept, so closing and reopening a menu does not skip them.
+     * Must be called on the main thread.
+     * @param playerId The player's UUID.
+     */
+    public void expireCooldowns(UUID playerId) {
+        ClickState state = this.states.get(playerId);
+        if (state == null || state.cooldowns.isEmpty()) return;
+        long now = now();
+        state.cooldowns.values().removeIf(readyAt -> readyAt <= now);
+    }
+
+    /**
+     * Gets the number of clicks rejected since the server started.
+     * @return The number of throttled clicks.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Forgets the state of a player, e.g. when they quit.
+     * @param playerId The player's UUID.
+     */
+    public void remove(UUID playerId) {
+        this.states.remove(playerId);
+    }
+
+    /**
+     * Forgets the state of every player.
+     */
+    public void clear() {
+        this.states.clear();
+    }
+
+    private ClickState state(Player player) {
+        return this.states.computeIfAbsent(player.getUniqueId(), id -> new ClickState((now() << TOKEN_BITS) | this.capacity));
+    }
+
+    private long now() {
+        return (System.nanoTime() - this.epoch) / 1_000_000L;
+    }
+
+    private static final class ClickState {
+
+        private final AtomicLong bucket;
+        private final Map<InventoryButton, Long> cooldowns = new IdentityHashMap<>();
+
+        private ClickState(long bucket) {
+            this.bucket = new AtomicLong(bucket);
+        }
+    }
+}
@@ -3,24 +3,30 @@ package io.github.lucfr1746.llibrary.inventory;
 import io.github.lucfr1746.llibrary.LLibrary;
 import io.github.lucfr1746.llibrary.action.Action;
 import io.github.lucfr1746.llibrary.action.ActionLoader;
+import io.github.lucfr1746.llibrary.action.ActionProgram;
+import io.github.lucfr1746.llibrary.action.list.MoneyAction;
 import io.github.lucfr1746.llibrary.itemstack.ItemBuilder;
 import io.github.lucfr1746.llibrary.requirement.Requirement;
 import io.github.lucfr1746.llibrary.requirement.RequirementLoader;
+import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
-import org.bukkit.inventory.*;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.MenuType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class InventoryBuilder implements InventoryHandler, Cloneable {
 
@@ -31,6 +37,12 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
         NONE
     }
 
+    private static final ClickType[] CLICK_TYPES = ClickType.values();
+
+    private static final Set<String> CLICK_ACTION_KEYS = Arrays.stream(CLICK_TYPES)
+            .map(InventoryBuilder::clickActionKey)
+            .collect(Collectors.toUnmodifiableSet());
+
     private String id = UUID.randomUUID().toString();
 
     private String title = "";
@@ -39,7 +51,11 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
 
     private LockMode lockMode = LockMode.ALL;
 
-    private InventoryView inventoryView;
+    private int updateInterval = 20;
+
+    private boolean asyncOpen = false;
+
+    private boolean shared = false;
 
     private Map<Integer, TreeSet<InventoryButton>> buttonMap = new HashMap<>();
 
@@ -47,42 +63,92 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
 
     private List<Action> openActions = new ArrayList<>();
 
+    private volatile ActionProgram openProgram = ActionProgram.compile(List.of());
+
     private List<String> openCommands = new ArrayList<>();
 
+    private volatile MenuTemplate template;
+
+    private InventoryView inventoryView;
+
     public void setId(String id) {
         this.id = id;
+        invalidate();
     }
 
     public void setTitle(String title) {
         this.title = title;
+        invalidate();
     }
 
     public void setMenuType(MenuType menuType) {
         this.menuType = menuType;
+        invalidate();
     }
 
     public void setLockMode(LockMode lockMode) {
         this.lockMode = lockMode;
+        invalidate();
+    }
+
+    /**
+     * Sets how often the updating buttons of this menu are re-rendered.
+     * @param updateInterval The interval in ticks.
+     */
+    public void setUpdateInterval(int updateInterval) {
+        this.updateInterval = Math.max(1, updateInterval);
+        invalidate();
+    }
+
+    /**
+     * Sets whether the icons and view requirements of this menu are resolved off the main thread when it is opened.
+     * Only enable this if every icon creator and requirement of the menu is thread-safe.
+     * @param asyncOpen {@code true} to prepare the menu on a virtual thread.
+     */
+    public void setAsyncOpen(boolean asyncOpen) {
+        this.asyncOpen = asyncOpen;
+        invalidate();
+    }
+
+    /**
+     * Sets whether every viewer of this menu shares a single inventory.
+     * A shared menu is rendered once for everyone, so its icons and view requirements must not depend on the viewer.
+     * Only chest menus can be shared, paginated menus are always opened per viewer.
+     * @param shared {@code true} to share the menu.
+     */
+    public void setShared(boolean shared) {
+        this.shared = shared;
+        invalidate();
     }
 
     public void setButtonMap(Map<Integer, TreeSet<InventoryButton>> buttonMap) {
         this.buttonMap.clear();
         this.buttonMap.putAll(buttonMap);
+        invalidate();
     }
 
     public void setOpenRequirements(List<Requirement> openRequirements) {
         this.openRequirements.clear();
         this.openRequirements.addAll(openRequirements);
+        invalidate();
     }
 
+    /**
+     * Sets the actions run when the menu is opened.
+     * The list is kept as it is for {@link #getOpenActions()}, and compiled into an {@link ActionProgram} to run it.
+     * @param openActions The actions, in execution order.
+     */
     public void setOpenActions(List<Action> openActions) {
         this.openActions.clear();
         this.openActions.addAll(openActions);
+        this.openProgram = ActionProgram.compile(this.openActions);
+        invalidate();
     }
 
     public void setOpenCommands(List<String> openCommands) {
         this.openCommands.clear();
         this.openCommands.addAll(openCommands);
+        invalidate();
     }
 
     public String getId() {
@@ -101,6 +167,24 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
         return this.lockMode;
     }
 
+    public int getUpdateInterval() {
+        return this.updateInterval;
+    }
+
+    public boolean isAsyncOpen() {
+        return this.asyncOpen;
+    }
+
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    /**
+     * Gets the view created by the last call to {@link #decorate(Player)}.
+     * @return The decorated view.
+     * @deprecated Menus are rendered per viewer by a {@link MenuSession}, use {@link MenuSession#getInventoryView()}.
+     */
+    @Deprecated(since = "2.2.0", forRemoval = true)
     public @NotNull InventoryView getInventoryView() {
         return this.inventoryView;
     }
@@ -130,86 +214,112 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
                         k -> new TreeSet<>(Comparator.comparing(InventoryButton::getPriority).reversed()))
                 .removeIf(b -> b.getPriority() == button.getPriority());
         buttonMap.get(slot).add(button);
+        invalidate();
     }
 
+    /**
+     * Refreshes a button for a player currently viewing this menu.
+     * The change only applies to that player's session, the menu itself is left untouched.
+     * @param player The viewer.
+     * @param slot The raw slot.
+     * @param button The new button.
+     */
     public void refreshButton(Player player, int slot, InventoryButton button) {
-        addButton(slot, button);
-        updateButton(player, slot);
+        MenuSession session = getSession(player);
+        if (session != null) session.refreshButton(slot, button);
     }
 
+    /**
+     * Refreshes buttons for a player currently viewing this menu.
+     * The change only applies to that player's session, the menu itself is left untouched.
+     * @param player The viewer.
+     * @param newButtonMap The buttons to merge, keyed by raw slot.
+     */
     public void refreshButtons(Player player, Map<Integer, TreeSet<InventoryButton>> newButtonMap) {
-        newButtonMap.forEach((slot, buttons) ->
-                buttonMap.computeIfAbsent(slot,
-                                k -> new TreeSet<>(Comparator.comparing(InventoryButton::getPriority).reversed()))
-                        .addAll(buttons)
-        );
-        updateButtons(player);
-    }
-
-    private void updateButtons(Player player) {
-        buttonMap.forEach((slot, buttons) -> updateButton(player, slot));
-    }
-
-    private void updateButton(Player player, int slot) {
-        buttonMap.getOrDefault(slot, new TreeSet<>(Comparator.comparing(InventoryButton::getPriority).reversed()))
-                .stream()
-                .filter(button -> button.getViewRequirements() == null ||
-                        button.getViewRequirements().stream().allMatch(req -> req.evaluate(player)))
-                .findFirst()
-                .ifPresentOrElse(button -> {
-                    if (slot >= this.inventoryView.getTopInventory().getSize()) {
-                        LLibrary.getPluginLogger().warning("The slot -> " + slot + " is out of of inventory size. Skipping...");
-                    } else {
-                        ItemStack icon = button.getIconCreator().apply(player);
-                        this.inventoryView.getTopInventory().setItem(slot, icon);
-                    }
-                }, () -> this.inventoryView.getTopInventory().clear(slot));
+        MenuSession session = getSession(player);
+        if (session != null) session.refreshButtons(newButtonMap);
+    }
+
+    private @Nullable MenuSession getSession(Player player) {
+        MenuSession session = LLibrary.getInventoryManager().getSession(player);
+        return session != null && session.getTemplate().getOwner() == this ? session : null;
+    }
+
+    /**
+     * Gets the compiled template of this menu, compiling it if the menu changed since the last call.
+     * @return The immutable template shared by every viewer.
+     */
+    public MenuTemplate getTemplate() {
+        MenuTemplate compiled = this.template;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = this.template;
+                if (compiled == null) {
+                    compiled = new MenuTemplate(this);
+                    this.template = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Creates a new session of this menu for a viewer.
+     * Override this to attach per-viewer state to a custom menu.
+     * @param player The viewer.
+     * @return A new, undecorated session.
+     */
+    protected MenuSession createSession(Player player) {
+        return new MenuSession(getTemplate(), player);
+    }
+
+    /**
+     * Renders this menu for a player into a new view, available from {@link #getInventoryView()}.
+     * The view is rendered by a new session of this menu, but it is not tracked: clicks in it are not handled.
+     * @param player The viewer.
+     * @deprecated Open menus through {@link InventoryManager#openGUI(String, Player)},
+     * or render a session with {@link #createSession(Player)} and {@link MenuSession#decorate()}.
+     */
+    @Deprecated(since = "2.2.0", forRemoval = true)
+    public void decorate(Player player) {
+        MenuSession session = createSession(player);
+        session.decorate();
+        InventoryView view = session.getInventoryView();
+        if (view == null) {
+            // Chest sessions only get a view once opened, so their content is copied into a view of the menu type.
+            view = this.menuType.typed().create(player, getTitle());
+            view.getTopInventory().setContents(session.getInventory().getContents());
+        }
+        this.inventoryView = view;
     }
 
-    public void decorate(Player player) {
-        this.inventoryView = menuType.typed().create(player, getTitle());
-        updateButtons(player);
+    private void invalidate() {
+        this.template = null;
     }
 
+    /**
+     * Called after a session of this menu has handled a click.
+     * @param event The click event.
+     */
     @Override
     public void onClick(InventoryClickEvent event) {
-        if (event.getClickedInventory() == null) return;
-
-        boolean isPlayerInventory = event.getClickedInventory() instanceof PlayerInventory;
-
-        switch (this.lockMode) {
-            case GUI -> event.setCancelled(!isPlayerInventory);
-            case PLAYER -> event.setCancelled(isPlayerInventory);
-            case NONE -> event.setCancelled(false);
-            default -> event.setCancelled(true);
-        }
-
-        int slot = event.getRawSlot();
-        TreeSet<InventoryButton> buttons = buttonMap.get(slot);
-        if (buttons == null || buttons.isEmpty()) return;
-
-        buttons.stream()
-                .filter(button -> button.getViewRequirements() == null ||
-                        button.getViewRequirements().stream().allMatch(req -> req.evaluate((Player) event.getWhoClicked())))
-                .findFirst()
-                .ifPresent(button -> {
-                    if (button.getEventConsumer() != null) {
-                        button.getEventConsumer().accept(event);
-                    }
-                });
     }
 
     @Override
     public void onOpen(InventoryOpenEvent event) {
-        for (Action action : getOpenActions()) {
-            action.execute((Player) event.getPlayer());
-        }
+        this.openProgram.execute((Player) event.getPlayer());
     }
 
     @Override
     public void onClose(InventoryCloseEvent event) {
     }
 
+    /**
+     * Copies this menu, cloning its buttons.
+     * @return The copy, with no decorated view.
+     * @deprecated Menus are compiled into a {@link MenuTemplate} shared by every viewer, they no longer need to be copied per viewer.
+     */
+    @Deprecated(since = "2.2.0", forRemoval = true)
     @Override
     public InventoryBuilder clone() {
         try {
@@ -228,6 +338,7 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
                 clone.buttonMap.put(entry.getKey(), clonedButtons);
             }
 
+            clone.template = null;
             clone.inventoryView = null;
             return clone;
         } catch (CloneNotSupportedException e) {
@@ -238,142 +349,192 @@ public class InventoryBuilder implements InventoryHandler, Cloneable {
     public void loadFromFile(@Nullable FileConfiguration fileConfiguration) {
         if (fileConfiguration == null)
             throw new IllegalArgumentException("The file must not be null!");
-        loadID(fileConfiguration);
-
-        List<Requirement> requirements;
-        if (fileConfiguration.getConfigurationSection("open-requirement") == null) {
-            requirements = new ArrayList<>();
-        } else {
-            requirements = new RequirementLoader().getRequirements(fileConfiguration.getConfigurationSection("open-requirement"));
-        }
-        setOpenRequirements(requirements);
-
-        List<Action> actions = getActionsOrEmpty("open-action", fileConfiguration);
-        setOpenActions(actions);
+        load(MenuDescriptor.of(fileConfiguration));
+    }
 
-        loadOpenCommands(fileConfiguration);
-        loadMenuProperties(fileConfiguration);
+    /**
+     * Loads this menu from the descriptor of a menu file, creating its actions and requirements.
+     * @param descriptor The descriptor, read from YAML or from the menu cache.
+     */
+    void load(@NotNull MenuDescriptor descriptor) {
+        // Logged on every load so that menus read from the cache still report their problems.
+        descriptor.warnings.forEach(LLibrary.getPluginLogger()::warning);
+        loadID(descriptor);
+        setOpenRequirements(getRequirements(descriptor.openRequirements));
+        setOpenActions(ActionLoader.getInstance().getActions(descriptor.openActions));
+        setOpenCommands(descriptor.openCommands);
+        loadMenuProperties(descriptor);
     }
 
-    private void loadID(@NotNull FileConfiguration fileConfiguration) {
-        String id = fileConfiguration.getString("menu-id");
-        if (id == null) {
+    private void loadID(@NotNull MenuDescriptor descriptor) {
+        if (descriptor.id == null) {
             LLibrary.getPluginLogger().warning("Missing menu-id which is required. Generating random UUID for this menu...");
+            return;
         }
-        setId(id);
-    }
-
-    private void loadOpenCommands(@NotNull FileConfiguration fileConfiguration) {
-        List<String> commands = new ArrayList<>();
-        Optional.ofNullable(fileConfiguration.get("open-command")).ifPresent(cmd -> {
-            if (cmd instanceof String) commands.add((String) cmd);
-            else commands.addAll(fileConfiguration.getStringList("open-command"));
-        });
-
-        setOpenCommands(commands);
+        setId(descriptor.id);
     }
 
-    private void loadMenuProperties(@NotNull FileConfiguration fileConfiguration) {
-        Optional.ofNullable(fileConfiguration.getString("menu-title")).ifPresent(this::setTitle);
-        Optional.ofNullable(fileConfiguration.getString("menu-type")).ifPresent(type ->
+    private void loadMenuProperties(@NotNull MenuDescriptor descriptor) {
+        Optional.ofNullable(descriptor.title).ifPresent(this::setTitle);
+        if (descriptor.updateInterval >= 0) setUpdateInterval(descriptor.updateInterval);
+        if (descriptor.asyncOpen && LLibrary.isPlaceholderAPIEnabled() && usesPlaceholders(descriptor.items)) {
+            // Most PlaceholderAPI expansions are not thread-safe, so such menus are prepared on the main thread.
+            LLibrary.getPluginLogger().warning("The menu " + getId() + " uses placeholders in its icons or view requirements, "
+                    + "async-open is ignored and the menu is prepared on the main thread.");
+            setAsyncOpen(false);
+        } else {
+            setAsyncOpen(descriptor.asyncOpen);
+        }
+        setShared(descriptor.shared);
+        Optional.ofNullable(descriptor.menuType).ifPresent(type ->
                 setMenuType(Registry.MENU.get(new NamespacedKey(NamespacedKey.MINECRAFT, type.toLowerCase())))
         );
-        loadItems(fileConfiguration);
+        loadItems(descriptor.items);
+    }
+
+    private void loadItems(@NotNull List<MenuDescriptor.ItemDescriptor> items) {
+        for (MenuDescriptor.ItemDescriptor item : items) {
+            String key = item.key;
+            Material material = item.material;
+            List<ItemFlag> flags = item.flags;
+            ActionProgram[] clickActions = compileClickActions(item);
+            boolean close = key.equals("close");
+
+            String displayName = item.displayName;
+            List<String> lores = item.lores;
+
+            boolean staticIcon = !LLibrary.isPlaceholderAPIEnabled() || !hasPlaceholders(displayName, lores);
+
+            InventoryButton button = item.frames.isEmpty() ? new InventoryButton() : loadFrames(item);
+            button.id(key)
+                    .priority(item.priority)
+                    .viewRequirements(getRequirements(item.requirements))
+                    .staticIcon(staticIcon)
+                    .update(item.update)
+                    .updateInterval(item.updateInterval)
+                    .clickCooldown(item.clickCooldown)
+                    .creator(player -> staticIcon
+                            ? buildIcon(material, displayName, lores, flags)
+                            : buildIcon(material, PlaceholderAPI.setPlaceholders(player, displayName),
+                            lores.isEmpty() ? lores : PlaceholderAPI.setPlaceholders(player, lores), flags))
+                    .consumer(event -> {
+                        Player player = (Player) event.getWhoClicked();
+                        if (close) player.closeInventory();
+                        clickActions[event.getClick().ordinal()].execute(player);
+                    });
+            for (int slot : item.slots) addButton(slot, button);
+        }
     }
 
-    private void loadItems(@NotNull FileConfiguration fileConfiguration) {
-        ConfigurationSection items = fileConfiguration.getConfigurationSection("items");
-        if (items == null) return;
-
-        for (String key : items.getKeys(false)) {
-            ConfigurationSection item = Objects.requireNonNull(items.getConfigurationSection(key));
+    /**
+     * Compiles the click actions of an item into a table of programs indexed by {@link ClickType#ordinal()}.
+     * Each entry runs the actions of its click type, e.g. {@code shift-left-click-action}, followed by the {@code click-action} list.
+     */
+    private ActionProgram[] compileClickActions(MenuDescriptor.ItemDescriptor item) {
+        for (String actionKey : item.actions.keySet()) {
+            if (!actionKey.equals("click-action") && !actionKey.equals("deny-action") && !CLICK_ACTION_KEYS.contains(actionKey))
+                LLibrary.getPluginLogger().warning("Unknown click action -> " + actionKey + " in item " + item.key + ". Skipping...");
+        }
 
-            Material material;
-            try {
-                material = Material.valueOf(item.getString("material"));
-            } catch (IllegalArgumentException e) {
-                LLibrary.getPluginLogger().warning("There is no material named: " + item.getString("material") + ". Skipping this item...");
-                continue;
-            } catch (NullPointerException e) {
-                LLibrary.getPluginLogger().warning("Missing material for item: " + key + ". Skipping this item...");
+        List<Action> deny = getActions(item.getActions("deny-action"));
+        List<Action> click = withDenyHandler(ActionLoader.getInstance().getActions(item.getActions("click-action")), deny);
+        ActionProgram clickOnly = ActionProgram.compile(click);
+        ActionProgram[] clickActions = new ActionProgram[CLICK_TYPES.length];
+        for (ClickType clickType : CLICK_TYPES) {
+            List<String> raw = item.getActions(clickActionKey(clickType));
+            if (raw.isEmpty()) {
+                clickActions[clickType.ordinal()] = clickOnly;
                 continue;
             }
+            List<Action> actions = new ArrayList<>(withDenyHandler(ActionLoader.getInstance().getActions(raw), deny));
+            actions.addAll(click);
+            clickActions[clickType.ordinal()] = ActionProgram.compile(actions);
+        }
+        return clickActions;
+    }
 
-            List<Integer> slots;
-            if (item.getIntegerList("slot").isEmpty() && item.getInt("slot", -1) == -1) {
-                LLibrary.getPluginLogger().warning("Missing slot for item: " + key + ". Skipping this item...");
-                continue;
-            } else {
-                if (item.getIntegerList("slot").isEmpty()) {
-                    slots = Collections.singletonList(item.getInt("slot"));
-                } else {
-                    slots = new ArrayList<>(item.getIntegerList("slot"));
-                }
-            }
+    /**
+     * Makes every money action of a list run the {@code deny-action} list of its item when its transaction fails.
+     */
+    private static List<Action> withDenyHandler(List<Action> actions, List<Action> deny) {
+        if (deny.isEmpty()) return actions;
+        for (Action action : actions) {
+            if (action instanceof MoneyAction moneyAction) moneyAction.setDenyHandler(deny);
+        }
+        return actions;
+    }
+
+    /**
+     * Gets the YAML key of the actions of a click type, e.g. {@code shift-left-click-action} or {@code double-click-action}.
+     */
+    private static String clickActionKey(ClickType clickType) {
+        String name = clickType.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        return name.endsWith("click") ? name + "-action" : name + "-click-action";
+    }
+
+    /**
+     * Builds every frame of an animated item once. The item itself is the first frame,
+     * each entry of its {@code frames} list is a following frame. Placeholders are not resolved in frames.
+     */
+    private AnimatedButton loadFrames(MenuDescriptor.ItemDescriptor item) {
+        List<ItemStack> frames = new ArrayList<>(item.frames.size() + 1);
+        frames.add(buildIcon(item.material, item.displayName, item.lores, item.flags));
+        for (MenuDescriptor.FrameDescriptor frame : item.frames) {
+            frames.add(buildIcon(
+                    frame.material != null ? frame.material : item.material,
+                    frame.displayName != null ? frame.displayName : item.displayName,
+                    frame.lores != null ? frame.lores : item.lores,
+                    item.flags));
+        }
+        return new AnimatedButton().frames(frames).frameInterval(item.frameInterval);
+    }
 
-            List<Requirement> requirements;
-            if (item.getConfigurationSection("requirements") == null) {
-                requirements = new ArrayList<>();
-            } else {
-                requirements = new RequirementLoader().getRequirements(item.getConfigurationSection("requirements"));
+    private static ItemStack buildIcon(Material material, String displayName, List<String> lores, List<ItemFlag> flags) {
+        ItemBuilder itemBuilder = new ItemBuilder(material);
+        if (displayName.isBlank() && lores.isEmpty()) itemBuilder.setHideTooltip(true);
+        else {
+            itemBuilder.setDisplayName(displayName);
+            if (!lores.isEmpty()) itemBuilder.setLores(lores);
+        }
+        for (ItemFlag flag : flags) itemBuilder.addItemFlags(flag);
+        return itemBuilder.build();
+    }
+
+    /**
+     * Checks whether any icon or view requirement of the items resolves placeholders while the menu is prepared.
+     */
+    private boolean usesPlaceholders(List<MenuDescriptor.ItemDescriptor> items) {
+        for (MenuDescriptor.ItemDescriptor item : items) {
+            if (item.frames.isEmpty() && hasPlaceholders(item.displayName, item.lores)) return true;
+            for (MenuDescriptor.RequirementDescriptor requirement : item.requirements) {
+                if (containsPlaceholders(requirement.values)) return true;
             }
+        }
+        return false;
+    }
 
-            List<ItemFlag> flags = new ArrayList<>();
-            if (item.contains("item-flags")) {
-                item.getStringList("item-flags").forEach(flag -> {
-                    try {
-                        flags.add(ItemFlag.valueOf(flag.toUpperCase()));
-                    } catch (IllegalArgumentException e) {
-                        LLibrary.getPluginLogger().warning("Invalid item flag -> " + flag + ". Skipping this flag...");
-                    }
-                });
-            }
+    private static boolean containsPlaceholders(Object value) {
+        if (value instanceof String text) return text.indexOf('%') >= 0;
+        if (value instanceof Map<?, ?> map) return map.values().stream().anyMatch(InventoryBuilder::containsPlaceholders);
+        if (value instanceof List<?> list) return list.stream().anyMatch(InventoryBuilder::containsPlaceholders);
+        return false;
+    }
 
-            List<Action> leftClick = getActionsOrEmpty("left-click-action", item);
-            List<Action> rightClick = getActionsOrEmpty("right-click-action", item);
-            List<Action> click = getActionsOrEmpty("click-action", item);
-
-            String displayName = item.getString("display-name", "");
-            List<String> lores = new ArrayList<>();
-            Optional.ofNullable(item.get("lore")).ifPresent(lore -> {
-                if (lore instanceof String) lores.add((String) lore);
-                else lores.addAll(item.getStringList("lore"));
-            });
-
-            InventoryButton button = new InventoryButton()
-                    .id(key)
-                    .priority(item.getInt("priority", 0))
-                    .viewRequirements(requirements)
-                    .creator(player -> {
-                        ItemBuilder itemBuilder = new ItemBuilder(material);
-                        if (displayName.isBlank() && lores.isEmpty()) itemBuilder.setHideTooltip(true);
-                        else {
-                            itemBuilder.setDisplayName(displayName);
-                            if (!lores.isEmpty()) itemBuilder.setLores(lores);
-                        }
-                        for (ItemFlag flag : flags) itemBuilder.addItemFlags(flag);
-                        return itemBuilder.build();
-                    })
-                    .consumer(event -> {
-                        if (key.equals("close")) event.getWhoClicked().closeInventory();
-                        if (event.getClick() == ClickType.LEFT) {
-                            for (Action action : leftClick) {
-                                action.execute((Player) event.getWhoClicked());
-                            }
-                        } else if (event.getClick() == ClickType.RIGHT) {
-                            for (Action action : rightClick) {
-                                action.execute((Player) event.getWhoClicked());
-                            }
-                        }
-                        for (Action action : click) {
-                            action.execute((Player) event.getWhoClicked());
-                        }
-                    });
-            slots.forEach(slot -> addButton(slot, button));
+    private boolean hasPlaceholders(String displayName, List<String> lores) {
+        if (displayName.indexOf('%') >= 0) return true;
+        for (String lore : lores) {
+            if (lore.indexOf('%') >= 0) return true;
         }
+        return false;
+    }
+
+    private List<Requirement> getRequirements(List<MenuDescriptor.RequirementDescriptor> requirements) {
+        return requirements.isEmpty()
+                ? new ArrayList<>()
+                : RequirementLoader.getInstance().getRequirements(MenuDescriptor.RequirementDescriptor.toSection(requirements));
     }
 
-    private List<Action> getActionsOrEmpty(String key, ConfigurationSection section) {
-        return section.contains(key) ? new ActionLoader().getActions(section.getStringList(key)) : Collections.emptyList();
+    private List<Action> getActions(List<String> actions) {
+        return actions.isEmpty() ? Collections.emptyList() : List.of(ActionLoader.getInstance().compile(actions));
     }
 }
@@ -17,9 +17,16 @@ public class InventoryButton implements Cloneable {
 
     private Function<Player, ItemStack> iconCreator;
     private Consumer<InventoryClickEvent> eventConsumer;
+    private Function<ClickSnapshot, Consumer<MenuSession>> asyncConsumer;
+    private boolean lockWhileRunning;
     private String id;
     private int priority;
     private List<Requirement> viewRequirements;
+    private boolean staticIcon;
+    private boolean update;
+    private int updateInterval;
+    private int clickCooldown;
+    private volatile ItemStack cachedIcon;
 
     /**
      * Sets the function that generates the button's icon.
@@ -28,6 +35,19 @@ public class InventoryButton implements Cloneable {
      */
     public InventoryButton creator(Function<Player, ItemStack> iconCreator) {
         this.iconCreator = iconCreator;
+        this.cachedIcon = null;
+        return this;
+    }
+
+    /**
+     * Marks whether the icon is the same for every viewer.
+     * A static icon is created once, then the same ItemStack is shared by every viewer of every menu using this button.
+     * @param staticIcon {@code true} if the icon does not depend on the viewer.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton staticIcon(boolean staticIcon) {
+        this.staticIcon = staticIcon;
+        this.cachedIcon = null;
         return this;
     }
 
@@ -41,6 +61,28 @@ public class InventoryButton implements Cloneable {
         return this;
     }
 
+    /**
+     * Sets a handler run on a virtual thread after the click, for blocking work such as database or economy calls.
+     * The handler receives an immutable copy of the click and may return a continuation,
+     * which is run on the main thread with the session if the player is still viewing the menu.
+     * @param asyncConsumer A function that processes the click and returns a continuation, or null for none.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton asyncConsumer(Function<ClickSnapshot, Consumer<MenuSession>> asyncConsumer) {
+        this.asyncConsumer = asyncConsumer;
+        return this;
+    }
+
+    /**
+     * Sets whether the slot of this button ignores clicks while its asynchronous handler is running.
+     * @param lockWhileRunning {@code true} to lock the slot.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton lockWhileRunning(boolean lockWhileRunning) {
+        this.lockWhileRunning = lockWhileRunning;
+        return this;
+    }
+
     /**
      * Sets the identifier for the button.
      * @param id A unique string identifier.
@@ -61,6 +103,38 @@ public class InventoryButton implements Cloneable {
         return this;
     }
 
+    /**
+     * Marks the button as updating, so it is re-rendered every update interval of its menu.
+     * @param update {@code true} to re-render the button periodically.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton update(boolean update) {
+        this.update = update;
+        return this;
+    }
+
+    /**
+     * Sets a custom update interval, overriding the interval of the menu.
+     * A positive interval also marks the button as updating.
+     * @param ticks The interval in ticks, or {@code 0} to use the menu's interval.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton updateInterval(int ticks) {
+        this.updateInterval = Math.max(0, ticks);
+        if (ticks > 0) this.update = true;
+        return this;
+    }
+
+    /**
+     * Sets how long a player must wait before clicking this button again.
+     * @param ticks The cooldown in ticks, or {@code 0} for none.
+     * @return The current InventoryButton instance.
+     */
+    public InventoryButton clickCooldown(int ticks) {
+        this.clickCooldown = Math.max(0, ticks);
+        return this;
+    }
+
     /**
      * Sets the list of requirements that determine whether the button is visible.
      * @param requirements A list of Requirement objects.
@@ -79,6 +153,61 @@ public class InventoryButton implements Cloneable {
         return this.iconCreator;
     }
 
+    /**
+     * Checks whether the icon is the same for every viewer.
+     * @return {@code true} if the icon is created once and shared.
+     */
+    public boolean isStaticIcon() {
+        return this.staticIcon;
+    }
+
+    /**
+     * Gets the icon of this button for a viewer.
+     * Static icons are created on the first call and shared afterward, so the returned ItemStack must not be modified.
+     * @param player The viewer.
+     * @return The icon to display.
+     */
+    public ItemStack getIcon(Player player) {
+        if (!this.staticIcon) return this.iconCreator.apply(player);
+        ItemStack icon = this.cachedIcon;
+        if (icon == null) {
+            icon = this.iconCreator.apply(player);
+            this.cachedIcon = icon;
+        }
+        return icon;
+    }
+
+    /**
+     * Discards the cached static icon, so it is created again on the next render.
+     */
+    public void invalidateIcon() {
+        this.cachedIcon = null;
+    }
+
+    /**
+     * Checks whether the button is re-rendered periodically.
+     * @return {@code true} if the button is updating.
+     */
+    public boolean isUpdating() {
+        return this.update;
+    }
+
+    /**
+     * Gets the custom update interval of the button.
+     * @return The interval in ticks, or {@code 0} if the menu's interval is used.
+     */
+    public int getUpdateInterval() {
+        return this.updateInterval;
+    }
+
+    /**
+     * Gets how long a player must wait before clicking this button again.
+     * @return The cooldown in ticks, or {@code 0} for none.
+     */
+    public int getClickCooldown() {
+        return this.clickCooldown;
+    }
+
     /**
      * Gets the consumer that handles inventory click events.
      * @return A consumer that processes InventoryClickEvent.
@@ -87,6 +216,22 @@ public class InventoryButton implements Cloneable {
         return this.eventConsumer;
     }
 
+    /**
+     * Gets the handler run on a virtual thread after the click.
+     * @return The asynchronous handler, or null if there is none.
+     */
+    public Function<ClickSnapshot, Consumer<MenuSession>> getAsyncConsumer() {
+        return this.asyncConsumer;
+    }
+
+    /**
+     * Checks whether the slot of this button ignores clicks while its asynchronous handler is running.
+     * @return {@code true} if the slot is locked.
+     */
+    public boolean isLockWhileRunning() {
+        return this.lockWhileRunning;
+    }
+
     /**
      * Gets the identifier of the button.
      * @return A unique string identifier.
@@ -111,6 +256,13 @@ public class InventoryButton implements Cloneable {
             clone.priority = this.priority;
             clone.iconCreator = this.iconCreator;
             clone.eventConsumer = this.eventConsumer;
+            clone.asyncConsumer = this.asyncConsumer;
+            clone.lockWhileRunning = this.lockWhileRunning;
+            clone.staticIcon = this.staticIcon;
+            clone.update = this.update;
+            clone.updateInterval = this.updateInterval;
+            clone.clickCooldown = this.clickCooldown;
+            clone.cachedIcon = this.cachedIcon;
             clone.viewRequirements = this.viewRequirements != null ? List.copyOf(this.viewRequirements) : List.of();
             return clone;
         } catch (CloneNotSupportedException e) {
@@ -125,4 +277,18 @@ public class InventoryButton implements Cloneable {
     public List<Requirement> getViewRequirements() {
         return this.viewRequirements;
     }
+
+    /**
+     * Checks whether a player meets every view requirement of this button.
+     * @param player The player to evaluate.
+     * @return {@code true} if the button is visible to the player.
+     */
+    public boolean canView(Player player) {
+        List<Requirement> requirements = this.viewRequirements;
+        if (requirements == null) return true;
+        for (int i = 0, size = requirements.size(); i < size; i++) {
+            if (!requirements.get(i).evaluate(player)) return false;
+        }
+        return true;
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 class InventoryListener implements Listener {
 
@@ -28,4 +29,9 @@ class InventoryListener implements Listener {
     public void onClose(InventoryCloseEvent event) {
         this.inventoryManager.handleClose(event);
     }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        this.inventoryManager.handleQuit(event);
+    }
 }
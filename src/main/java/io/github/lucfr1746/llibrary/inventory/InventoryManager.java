@@ -4,17 +4,33 @@ import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPICommand;
 import io.github.lucfr1746.llibrary.LLibrary;
 import io.github.lucfr1746.llibrary.util.helper.FileAPI;
+import io.github.lucfr1746.llibrary.util.helper.LatencyTracker;
 import io.github.lucfr1746.llibrary.util.helper.Logger;
+import io.github.lucfr1746.llibrary.util.helper.StringUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Manages custom inventories in the plugin.
@@ -22,25 +38,478 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class InventoryManager {
 
-    private final Map<String, InventoryBuilder> baseMenus = new HashMap<>();
-    private final Map<Inventory, InventoryHandler> activeInventories = new ConcurrentHashMap<>();
-    private final List<InventoryBuilder> pluginGUIs = new ArrayList<>();
+    private static final int MAX_NAVIGATION_DEPTH = 8;
+
+    private final Map<String, InventoryBuilder> baseMenus = new ConcurrentHashMap<>();
+    private final Map<UUID, MenuSession> viewerSessions = new ConcurrentHashMap<>();
+    private final Map<String, SharedMenuSession> sharedSessions = new HashMap<>();
+    private final Map<UUID, ClosedSessions> closedSessions = new HashMap<>();
+    private final Map<UUID, Deque<NavigationEntry>> navigation = new HashMap<>();
+    private final Map<String, InventoryBuilder> fileMenus = new LinkedHashMap<>();
     private final Set<String> registeredCommands = new HashSet<>();
+    private final List<MenuSession> pendingFlushes = new ArrayList<>();
+    private final MenuTicker ticker = new MenuTicker(this);
+    private final LatencyTracker openLatency = new LatencyTracker(1024);
+    private final ClickThrottle clickThrottle = new ClickThrottle();
+    private final MenuOpenQueue openQueue = new MenuOpenQueue(this);
+    private InventoryListener listener;
+    private BukkitTask tickerTask;
+    private BukkitTask closedSessionsTask;
+    private ExecutorService asyncExecutor;
+    private MenuWatcher menuWatcher;
+    private MenuCache menuCache;
+    private boolean dispatchingEvent;
+    private MenuSession openingSession;
+    private long leakedSessions;
     private Logger logger;
 
     /**
      * Opens a custom GUI for a player by menu ID.
+     * <p>
+     * The menu is prepared first, on a virtual thread if the menu is async-open, and then committed
+     * and opened on the main thread, on the next tick. This is safe to call from anywhere, including inventory events.
      * @param menuID The ID of the menu to open.
      * @param player The player who will see the GUI.
      */
     public void openGUI(String menuID, Player player) {
-        Optional.ofNullable(baseMenus.get(menuID)).ifPresentOrElse(baseMenu -> {
-            InventoryBuilder menuClone = baseMenu.clone();
-            menuClone.decorate(player);
-            Inventory inventory = menuClone.getInventoryView().getTopInventory();
-            registerActiveInventory(inventory, menuClone);
-            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> player.openInventory(menuClone.getInventoryView()));
-        }, () -> logger.warning("No menu found with ID: " + menuID));
+        open(menuID, player, true, false);
+    }
+
+    /**
+     * Opens a custom GUI for a player by menu ID within the current tick.
+     * <p>
+     * Bukkit forbids opening an inventory while an inventory event is being handled,
+     * so only call this on the main thread outside any inventory click, drag, open or close event.
+     * Async-open menus are still prepared off the main thread, and calls off the main thread
+     * open the menu on the next tick like {@link #openGUI(String, Player)}.
+     * @param menuID The ID of the menu to open.
+     * @param player The player who will see the GUI.
+     */
+    public void openGUINow(String menuID, Player player) {
+        open(menuID, player, true, true);
+    }
+
+    /**
+     * Opens a menu for a player.
+     * @param menuID The ID of the menu to open.
+     * @param player The player who will see the GUI.
+     * @param navigate {@code true} to push the menu the player is leaving onto their navigation stack.
+     * @param immediate {@code true} to open the menu right away when called on the main thread.
+     */
+    private void open(String menuID, Player player, boolean navigate, boolean immediate) {
+        InventoryBuilder baseMenu = baseMenus.get(menuID);
+        if (baseMenu == null) {
+            logger.warning("No menu found with ID: " + menuID);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean primaryThread = Bukkit.isPrimaryThread();
+        boolean inline = immediate && primaryThread;
+        if (baseMenu.getTemplate().isShared()) {
+            if (inline) openShared(baseMenu, player, start, navigate);
+            else Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> openShared(baseMenu, player, start, navigate));
+            return;
+        }
+
+        if (primaryThread) {
+            MenuSession closed = takeClosedSession(player, baseMenu.getTemplate());
+            if (closed != null) {
+                if (inline) reopen(closed, start, navigate);
+                else Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> reopen(closed, start, navigate));
+                return;
+            }
+        }
+
+        MenuSession session = baseMenu.createSession(player);
+        if (session.getTemplate().isAsyncOpen() && asyncExecutor != null) {
+            CompletableFuture.runAsync(session::prepare, asyncExecutor).whenComplete((ignored, throwable) ->
+                    Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+                        if (throwable != null) {
+                            logger.error("Failed to prepare menu " + menuID + " for " + player.getName() + ": " + throwable.getMessage());
+                            return;
+                        }
+                        commitOpen(session, start, navigate);
+                    }));
+            return;
+        }
+
+        session.prepare();
+        if (inline) commitOpen(session, start, navigate);
+        else Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> commitOpen(session, start, navigate));
+    }
+
+    /**
+     * Queues a menu to open for a player, for opens that do not need to happen right away.
+     * <p>
+     * Queued menus are opened from the next tick on, within the open budget of each tick.
+     * Requests for the same player are coalesced: only the last menu queued for a player is opened.
+     * @param menuID The ID of the menu to open.
+     * @param player The player who will see the GUI.
+     */
+    public void queueOpen(String menuID, Player player) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> queueOpen(menuID, player));
+            return;
+        }
+        openQueue.queue(menuID, player);
+    }
+
+    /**
+     * Opens a menu for many players at once, e.g. when an event starts.
+     * The opens are queued and spread over ticks, see {@link #queueOpen(String, Player)}.
+     * @param menuID The ID of the menu to open.
+     * @param players The players who will see the GUI.
+     */
+    public void openBatch(String menuID, Collection<? extends Player> players) {
+        if (!Bukkit.isPrimaryThread()) {
+            List<Player> copy = List.copyOf(players);
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> openBatch(menuID, copy));
+            return;
+        }
+        for (Player player : players) openQueue.queue(menuID, player);
+    }
+
+    /**
+     * Sets how much time queued opens may take per tick.
+     * At least one queued menu is opened per tick whatever the budget.
+     * @param millis The budget in milliseconds, {@code 5} by default.
+     */
+    public void setOpenBudget(double millis) {
+        openQueue.setBudget(millis);
+    }
+
+    /**
+     * Gets how much time queued opens may take per tick.
+     * @return The budget in milliseconds.
+     */
+    public double getOpenBudget() {
+        return openQueue.getBudget();
+    }
+
+    /**
+     * Gets the latency of queued open batches, from the first request until the queue is drained.
+     * @return The tracker holding the most recent batch latencies.
+     */
+    public LatencyTracker getBatchOpenLatency() {
+        return openQueue.getBatchLatency();
+    }
+
+    /**
+     * Second stage of an open, on the main thread: creates the view, tracks the session and opens it.
+     * @param session The prepared session.
+     * @param start The time the open was requested at, in nanoseconds.
+     * @param navigate {@code true} to push the menu the viewer is leaving onto their navigation stack.
+     */
+    private void commitOpen(MenuSession session, long start, boolean navigate) {
+        if (!session.getViewer().isOnline()) return;
+        session.commit();
+        show(session, start, navigate);
+    }
+
+    /**
+     * Shows a closed session again, restoring changed slots and re-rendering its dynamic slots.
+     * @param session The closed session.
+     * @param start The time the open was requested at, in nanoseconds.
+     * @param navigate {@code true} to push the menu the viewer is leaving onto their navigation stack.
+     */
+    private void reopen(MenuSession session, long start, boolean navigate) {
+        if (!session.getViewer().isOnline()) return;
+        session.reopen();
+        show(session, start, navigate);
+    }
+
+    /**
+     * Opens a committed session and tracks it once the viewer is looking at it.
+     * @param session The committed session.
+     * @param start The time the open was requested at, in nanoseconds.
+     * @param navigate {@code true} to push the menu the viewer is leaving onto their navigation stack.
+     */
+    private void show(MenuSession session, long start, boolean navigate) {
+        Player player = session.getViewer();
+        MenuSession from = viewerSessions.get(player.getUniqueId());
+        MenuSession opening = openingSession;
+        openingSession = session;
+        boolean opened;
+        try {
+            opened = session.open();
+        } finally {
+            openingSession = opening;
+        }
+        if (!opened) return;
+        if (navigate) pushNavigation(player.getUniqueId(), from, session);
+        registerSession(player, session);
+        openLatency.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Opens a shared menu on the main thread, rendering it only if nobody is viewing it yet.
+     * @param baseMenu The shared menu.
+     * @param player The player who will see the GUI.
+     * @param start The time the open was requested at, in nanoseconds.
+     */
+    private void openShared(InventoryBuilder baseMenu, Player player, long start, boolean navigate) {
+        if (!player.isOnline()) return;
+
+        MenuTemplate template = baseMenu.getTemplate();
+        SharedMenuSession session = sharedSessions.get(template.getId());
+        if (session == null || session.getTemplate() != template) {
+            // A session of a reloaded template keeps its current viewers, new viewers get the new template.
+            session = new SharedMenuSession(template, player);
+            session.decorate();
+            sharedSessions.put(template.getId(), session);
+        }
+
+        MenuSession from = viewerSessions.get(player.getUniqueId());
+        MenuSession opening = openingSession;
+        openingSession = session;
+        boolean opened;
+        try {
+            opened = session.open(player);
+        } finally {
+            openingSession = opening;
+        }
+        if (!opened) {
+            if (session.getViewers().isEmpty()) sharedSessions.remove(template.getId(), session);
+            return;
+        }
+        if (navigate) pushNavigation(player.getUniqueId(), from, session);
+        registerSession(player, session);
+        openLatency.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the asynchronous handler of a clicked button on a virtual thread,
+     * then runs its continuation on the main thread if the clicker is still viewing the session.
+     * @param session The clicked session.
+     * @param slot The clicked raw slot, unlocked once the handler is done.
+     * @param button The clicked button.
+     * @param snapshot The copy of the click.
+     */
+    void runAsyncClick(MenuSession session, int slot, InventoryButton button, ClickSnapshot snapshot) {
+        if (asyncExecutor == null) {
+            session.unlockSlot(slot);
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> button.getAsyncConsumer().apply(snapshot), asyncExecutor)
+                .whenComplete((continuation, throwable) -> {
+                    if (!LLibrary.getInstance().isEnabled()) return;
+                    Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+                        session.unlockSlot(slot);
+                        if (throwable != null) {
+                            logger.error("The click handler of button " + snapshot.getButtonId() + " in menu "
+                                    + snapshot.getMenuId() + " failed: " + throwable.getMessage());
+                            return;
+                        }
+                        if (continuation != null && viewerSessions.get(snapshot.getPlayerId()) == session) {
+                            continuation.accept(session);
+                        }
+                    });
+                });
+    }
+
+    /**
+     * Takes a player back to the menu they were viewing before the current one.
+     * <p>
+     * The previous session is shown again as it was left, only its dynamic slots are rendered again.
+     * Menus that cannot be reused, or that were reloaded in the meantime, are opened from scratch instead.
+     * The menu is shown on the next tick. Must be called on the main thread.
+     * @param player The player.
+     * @return {@code true} if a previous menu is being opened, {@code false} if there is nothing to go back to.
+     */
+    public boolean back(Player player) {
+        Deque<NavigationEntry> stack = navigation.get(player.getUniqueId());
+        while (stack != null && !stack.isEmpty()) {
+            NavigationEntry entry = stack.pop();
+            if (stack.isEmpty()) navigation.remove(player.getUniqueId());
+            InventoryBuilder baseMenu = baseMenus.get(entry.menuID());
+            if (baseMenu == null) continue;
+
+            MenuSession session = entry.session();
+            if (session == null || session.getTemplate() != baseMenu.getTemplate() || session.getViewer() != player) {
+                open(entry.menuID(), player, false, false);
+                return true;
+            }
+            // The session is also cached as closed, it must not be handed out twice.
+            ClosedSessions closed = closedSessions.get(player.getUniqueId());
+            ClosedSession cached = closed == null ? null : closed.get(entry.menuID());
+            if (cached != null && cached.session().get() == session) closed.remove(entry.menuID());
+            long start = System.nanoTime();
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> reopen(session, start, false));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the menu a player is leaving for another one.
+     * Opening a menu while no menu is open starts a new navigation stack.
+     * @param viewerId The UUID of the viewer.
+     * @param from The session the viewer is leaving, or null if they had no menu open.
+     * @param to The session the viewer is now looking at.
+     */
+    private void pushNavigation(UUID viewerId, MenuSession from, MenuSession to) {
+        if (from == null) {
+            navigation.remove(viewerId);
+            return;
+        }
+        if (from == to) return;
+        Deque<NavigationEntry> stack = navigation.computeIfAbsent(viewerId, id -> new ArrayDeque<>());
+        stack.removeIf(entry -> entry.session() == to);
+        stack.push(new NavigationEntry(from.getTemplate().getId(), from.isReusable() ? from : null));
+        if (stack.size() > MAX_NAVIGATION_DEPTH) stack.removeLast();
+    }
+
+    /**
+     * A menu a player navigated away from.
+     * @param menuID The ID of the menu.
+     * @param session The session to show again, or null if the menu must be opened from scratch.
+     */
+    private record NavigationEntry(String menuID, MenuSession session) {
+    }
+
+    /**
+     * Keeps a closed session so the next open of the same menu by the same player can reuse it.
+     * Each player keeps their most recently closed sessions only, and an entry is dropped
+     * after it has been idle for a while or when the server runs low on memory.
+     * @param viewerId The UUID of the viewer.
+     * @param session The closed session.
+     */
+    private void cacheClosedSession(UUID viewerId, MenuSession session) {
+        if (!session.isReusable()) return;
+        InventoryBuilder baseMenu = baseMenus.get(session.getTemplate().getId());
+        if (baseMenu == null || baseMenu.getTemplate() != session.getTemplate()) return;
+        closedSessions.computeIfAbsent(viewerId, id -> new ClosedSessions())
+                .put(session.getTemplate().getId(), new ClosedSession(new SoftReference<>(session), System.nanoTime()));
+    }
+
+    /**
+     * Takes the closed session of a menu back from a player's cache.
+     * @param player The viewer.
+     * @param template The current template of the menu.
+     * @return The session, or null if there is none or it is out of date.
+     */
+    private MenuSession takeClosedSession(Player player, MenuTemplate template) {
+        ClosedSessions sessions = closedSessions.get(player.getUniqueId());
+        if (sessions == null) return null;
+        ClosedSession closed = sessions.remove(template.getId());
+        if (sessions.isEmpty()) closedSessions.remove(player.getUniqueId());
+        if (closed == null || closed.isExpired(System.nanoTime())) return null;
+        MenuSession session = closed.session().get();
+        return session != null && session.getTemplate() == template && session.getViewer() == player ? session : null;
+    }
+
+    /**
+     * Drops the closed sessions that expired or were cleared by the garbage collector.
+     */
+    private void evictClosedSessions() {
+        long now = System.nanoTime();
+        closedSessions.values().removeIf(sessions -> {
+            sessions.values().removeIf(closed -> closed.isExpired(now) || closed.session().get() == null);
+            return sessions.isEmpty();
+        });
+    }
+
+    /**
+     * The most recently closed sessions of a player, by menu ID, least recently used first.
+     */
+    private static final class ClosedSessions extends LinkedHashMap<String, ClosedSession> {
+
+        private static final int MAX_SIZE = 4;
+
+        private ClosedSessions() {
+            super(8, 0.75F, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ClosedSession> eldest) {
+            return size() > MAX_SIZE;
+        }
+    }
+
+    /**
+     * A closed session, softly referenced so it is dropped before the server runs out of memory.
+     */
+    private record ClosedSession(SoftReference<MenuSession> session, long closedAt) {
+
+        private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+        boolean isExpired(long now) {
+            return now - this.closedAt > TTL_NANOS;
+        }
+    }
+
+    /**
+     * Gets the session of a shared menu, to update its content for every viewer at once.
+     * @param menuID The ID of the shared menu.
+     * @return The session, or null if nobody is viewing the menu.
+     */
+    public SharedMenuSession getSharedSession(String menuID) {
+        return sharedSessions.get(menuID);
+    }
+
+    /**
+     * Gets the latency of menu opens, from the open request until the menu is shown.
+     * @return The tracker holding the most recent open latencies.
+     */
+    public LatencyTracker getOpenLatency() {
+        return openLatency;
+    }
+
+    /**
+     * Gets the click limiter applied to every LLibrary menu.
+     * @return The click throttle.
+     */
+    public ClickThrottle getClickThrottle() {
+        return clickThrottle;
+    }
+
+    /**
+     * Gets the number of sessions that were never closed, because their close event was missed.
+     * Such sessions are dropped when their viewer opens another menu or quits.
+     * @return The number of leaked sessions since the server started.
+     */
+    public long getLeakedSessions() {
+        return leakedSessions;
+    }
+
+    /**
+     * Gets the session of the menu a player is currently viewing.
+     * @param player The viewer.
+     * @return The session, or null if the player has no LLibrary menu open.
+     */
+    public MenuSession getSession(Player player) {
+        return viewerSessions.get(player.getUniqueId());
+    }
+
+    /**
+     * Queues a session whose dirty slots must be flushed.
+     * Sessions marked while an inventory event is dispatched are flushed when the dispatch ends,
+     * every other session is flushed by the pass of the menu ticker.
+     * @param session The session with dirty slots.
+     */
+    void queueFlush(MenuSession session) {
+        pendingFlushes.add(session);
+    }
+
+    /**
+     * Gets the ticker driving live menus.
+     * @return The menu ticker.
+     */
+    MenuTicker getTicker() {
+        return ticker;
+    }
+
+    /**
+     * Flushes every queued session.
+     */
+    void flushSessions() {
+        if (pendingFlushes.isEmpty()) return;
+        MenuSession[] sessions = pendingFlushes.toArray(new MenuSession[0]);
+        pendingFlushes.clear();
+        for (MenuSession session : sessions) {
+            session.flush();
+        }
     }
 
     /**
@@ -53,13 +522,127 @@ public class InventoryManager {
         this.logger.info("Loading base menus...");
         FileAPI fileAPI = new FileAPI(LLibrary.getInstance(), true);
         fileAPI.createFolderIfNotExist("menu");
-        fileAPI.getAllFiles("menu").forEach(file -> {
-            InventoryBuilder inventoryBuilder = new InventoryBuilder();
-            inventoryBuilder.loadFromFile(fileAPI.convertToYAMLConfiguration(file));
+        menuCache = new MenuCache(LLibrary.getInstance().getDataFolder().toPath().resolve("cache").resolve("menu"));
+        long start = System.nanoTime();
+        List<ParsedMenu> parsedMenus = parseMenuFiles(fileAPI.getAllFiles("menu"));
+        for (ParsedMenu parsedMenu : parsedMenus) {
+            if (parsedMenu.inventoryBuilder() == null) continue;
+            try {
+                registerInventoryBuilder(parsedMenu.inventoryBuilder());
+                fileMenus.put(parsedMenu.fileName(), parsedMenu.inventoryBuilder());
+            } catch (IllegalStateException e) {
+                logger.error(e.getMessage() + " in " + parsedMenu.fileName() + ". Skipping...");
+            }
+        }
+        logger.info("Loaded " + fileMenus.size() + " menus in " + (System.nanoTime() - start) / 1_000_000L + "ms");
+        menuCache.prune(parsedMenus.stream().map(ParsedMenu::fileName).collect(Collectors.toSet()));
+        if (listener == null) {
+            listener = new InventoryListener(this);
+            Bukkit.getPluginManager().registerEvents(listener, LLibrary.getInstance());
+        }
+        if (tickerTask == null) tickerTask = Bukkit.getScheduler().runTaskTimer(LLibrary.getInstance(), ticker, 1L, 1L);
+        if (closedSessionsTask == null)
+            closedSessionsTask = Bukkit.getScheduler().runTaskTimer(LLibrary.getInstance(), this::evictClosedSessions, 600L, 600L);
+        if (asyncExecutor == null) asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        startMenuWatcher();
+    }
+
+    /**
+     * Parses and compiles menu files in parallel on a dedicated fork-join pool.
+     * Nothing is registered here, registration stays on the calling thread.
+     * @param files The menu files.
+     * @return The parsed menus, in the order of the files.
+     */
+    private List<ParsedMenu> parseMenuFiles(List<File> files) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors())), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("LLibrary-MenuLoader-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        try {
+            return pool.submit(() -> files.parallelStream().map(this::parseMenuFile).toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ParsedMenu parseMenuFile(File file) {
+        long start = System.nanoTime();
+        try {
+            MenuDescriptor descriptor = menuCache.read(file);
+            long read = System.nanoTime();
+            InventoryBuilder inventoryBuilder = buildMenu(descriptor);
+            logger.debug("Parsed menu file " + file.getName() + " in "
+                    + StringUtil.formatNumber((System.nanoTime() - start) / 1_000_000D, 2, false) + "ms (read "
+                    + StringUtil.formatNumber((read - start) / 1_000_000D, 2, false) + "ms, build "
+                    + StringUtil.formatNumber((System.nanoTime() - read) / 1_000_000D, 2, false) + "ms)");
+            return new ParsedMenu(file.getName(), inventoryBuilder);
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            logger.error("Failed to load the menu file " + file.getName() + ": " + e.getMessage());
+            return new ParsedMenu(file.getName(), null);
+        }
+    }
+
+    /**
+     * Builds a menu from the descriptor of a menu file and compiles its template. Safe to call off the main thread.
+     * @param descriptor The descriptor of the menu file.
+     * @return The menu.
+     */
+    static InventoryBuilder buildMenu(MenuDescriptor descriptor) {
+        InventoryBuilder inventoryBuilder = new InventoryBuilder();
+        inventoryBuilder.load(descriptor);
+        inventoryBuilder.getTemplate();
+        return inventoryBuilder;
+    }
+
+    private record ParsedMenu(String fileName, InventoryBuilder inventoryBuilder) {
+    }
+
+    private void startMenuWatcher() {
+        if (menuWatcher != null) return;
+        try {
+            menuWatcher = new MenuWatcher(this, menuCache, LLibrary.getInstance().getDataFolder().toPath().resolve("menu"));
+            menuWatcher.start();
+        } catch (IOException e) {
+            logger.warning("Unable to watch the menu folder, menus will only be reloaded by /llibrary reload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the menu loaded from a file, leaving every other menu untouched.
+     * Open sessions of the replaced menu keep their template until they are closed,
+     * and its open commands are only registered again if they changed.
+     * @param fileName The name of the menu file.
+     * @param inventoryBuilder The menu parsed from the file, or null if the file was deleted.
+     */
+    void swapMenuFile(String fileName, InventoryBuilder inventoryBuilder) {
+        InventoryBuilder previous = fileMenus.get(fileName);
+        if (inventoryBuilder == null) {
+            if (previous == null) return;
+            fileMenus.remove(fileName);
+            unregisterInventoryBuilder(previous);
+            logger.info("Unloaded menu " + previous.getId() + " from " + fileName);
+            return;
+        }
+
+        InventoryBuilder existing = baseMenus.get(inventoryBuilder.getId());
+        if (existing != null && existing != previous) {
+            logger.error("Duplicate inventory builder ID: " + inventoryBuilder.getId() + " in " + fileName + ". Skipping...");
+            return;
+        }
+
+        if (previous != null && previous.getId().equals(inventoryBuilder.getId())
+                && previous.getOpenCommands().equals(inventoryBuilder.getOpenCommands())) {
+            baseMenus.put(inventoryBuilder.getId(), inventoryBuilder);
+        } else {
+            if (previous != null) {
+                unregisterOpenCommands(previous);
+                baseMenus.remove(previous.getId(), previous);
+            }
             registerInventoryBuilder(inventoryBuilder);
-            pluginGUIs.add(inventoryBuilder);
-        });
-        Bukkit.getPluginManager().registerEvents(new InventoryListener(this), LLibrary.getInstance());
+        }
+        fileMenus.put(fileName, inventoryBuilder);
+        logger.info("Reloaded menu " + inventoryBuilder.getId() + " from " + fileName);
     }
 
     /**
@@ -79,12 +662,15 @@ public class InventoryManager {
      */
     public void unregisterInventoryBuilder(InventoryBuilder inventoryBuilder) {
         unregisterOpenCommands(inventoryBuilder);
-        activeInventories.entrySet().removeIf(entry -> {
-            if (entry.getValue().equals(inventoryBuilder)) {
-                entry.getKey().getViewers().forEach(HumanEntity::closeInventory);
-                return true;
-            }
-            return false;
+        for (Map.Entry<UUID, MenuSession> entry : viewerSessions.entrySet()) {
+            MenuSession session = entry.getValue();
+            if (session.getTemplate().getOwner() != inventoryBuilder) continue;
+            new ArrayList<>(session.getInventory().getViewers()).forEach(HumanEntity::closeInventory);
+            unregisterSession(entry.getKey(), session);
+        }
+        closedSessions.values().removeIf(sessions -> {
+            sessions.remove(inventoryBuilder.getId());
+            return sessions.isEmpty();
         });
         baseMenus.remove(inventoryBuilder.getId());
     }
@@ -98,17 +684,25 @@ public class InventoryManager {
 
         if (openCommands == null || openCommands.isEmpty()) return;
 
-        Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> new CommandAPICommand(openCommands.getFirst())
-                .withAliases(openCommands.stream().skip(1).toArray(String[]::new))
-                .executesPlayer((player, args) -> {
-                    if (inventoryBuilder.getOpenRequirements().stream().allMatch(req -> req.evaluate(player))) {
-                        openGUI(inventoryBuilder.getId(), player);
-                    } else {
-                        inventoryBuilder.getOpenRequirements().stream()
-                                .filter(req -> !req.evaluate(player))
-                                .forEach(req -> req.getDenyHandler().forEach(handler -> handler.execute(player)));
-                    }
-                }).register());
+        // The menu is looked up on every execution, so a hot reload with the same commands keeps the registration.
+        String menuId = inventoryBuilder.getId();
+        Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+            new CommandAPICommand(openCommands.getFirst())
+                    .withAliases(openCommands.stream().skip(1).toArray(String[]::new))
+                    .executesPlayer((player, args) -> {
+                        InventoryBuilder menu = baseMenus.get(menuId);
+                        if (menu == null) return;
+                        RenderContext context = new RenderContext(player);
+                        if (menu.getOpenRequirements().stream().allMatch(context::evaluate)) {
+                            openGUI(menuId, player);
+                        } else {
+                            menu.getOpenRequirements().stream()
+                                    .filter(req -> !context.evaluate(req))
+                                    .forEach(req -> req.getDenyHandler().forEach(handler -> handler.execute(player)));
+                        }
+                    }).register();
+            registeredCommands.addAll(openCommands);
+        });
     }
 
     /**
@@ -127,24 +721,87 @@ public class InventoryManager {
      * Disables the inventory manager and closes all active inventories.
      */
     public void disable() {
-        pluginGUIs.forEach(this::unregisterInventoryBuilder);
+        if (menuWatcher != null) {
+            menuWatcher.stop();
+            menuWatcher = null;
+        }
+        fileMenus.values().forEach(this::unregisterInventoryBuilder);
+        fileMenus.clear();
+        sharedSessions.clear();
+        if (listener != null) {
+            HandlerList.unregisterAll(listener);
+            listener = null;
+        }
+        if (tickerTask != null) {
+            tickerTask.cancel();
+            tickerTask = null;
+        }
+        if (closedSessionsTask != null) {
+            closedSessionsTask.cancel();
+            closedSessionsTask = null;
+        }
+        closedSessions.clear();
+        navigation.clear();
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+        clickThrottle.clear();
+        openQueue.clear();
+    }
+
+    /**
+     * Tracks an opened session as the menu its viewer is looking at.
+     * The previous menu of the viewer is closed before the new one opens,
+     * so a session still tracked at this point missed its close event.
+     * @param session The opened session.
+     */
+    private void registerSession(Player viewer, MenuSession session) {
+        MenuSession previous = viewerSessions.put(viewer.getUniqueId(), session);
+        if (previous != null && previous != session) {
+            leakedSessions++;
+            releaseSession(viewer.getUniqueId(), previous);
+        }
+        if (!(session instanceof SharedMenuSession sharedSession) || sharedSession.addViewer(viewer)) {
+            ticker.schedule(session);
+        }
     }
 
     /**
-     * Registers an active inventory to track interactions.
-     * @param inventory The inventory instance.
-     * @param handler The handler associated with this inventory.
+     * Stops tracking a session for a viewer.
+     * @param viewerId The UUID of the viewer.
+     * @param session The session to unregister.
      */
-    private void registerActiveInventory(Inventory inventory, InventoryHandler handler) {
-        activeInventories.put(inventory, handler);
+    private void unregisterSession(UUID viewerId, MenuSession session) {
+        viewerSessions.remove(viewerId, session);
+        releaseSession(viewerId, session);
     }
 
     /**
-     * Unregisters an inventory, removing it from tracking.
-     * @param inventory The inventory instance to unregister.
+     * Stops updating a session once its last viewer is gone.
      */
-    private void unregisterInventory(Inventory inventory) {
-        activeInventories.remove(inventory);
+    private void releaseSession(UUID viewerId, MenuSession session) {
+        if (session instanceof SharedMenuSession sharedSession) {
+            if (!sharedSession.removeViewer(viewerId)) return;
+            sharedSessions.remove(sharedSession.getTemplate().getId(), sharedSession);
+        }
+        ticker.unschedule(session);
+    }
+
+    /**
+     * Finds the session an inventory event belongs to.
+     * Chest menus are recognised by their {@link MenuHolder}, which links straight to the session.
+     * Other menu types have no holder, so the session of the viewer is looked up and its inventory compared by identity.
+     * @param viewer The player involved in the event.
+     * @param inventory The top inventory of the event.
+     * @return The session, or null if the inventory is not an LLibrary menu.
+     */
+    private MenuSession findSession(HumanEntity viewer, Inventory inventory) {
+        if (inventory.getHolder() instanceof MenuHolder holder) return holder.getSession();
+        MenuSession session = viewerSessions.get(viewer.getUniqueId());
+        if (session != null && session.getInventory() == inventory) return session;
+        session = openingSession;
+        return session != null && session.getInventory() == inventory ? session : null;
     }
 
     /**
@@ -152,7 +809,7 @@ public class InventoryManager {
      * @param event The inventory click event.
      */
     void handleClick(InventoryClickEvent event) {
-        processInventoryEvent(event.getInventory(), handler -> handler.onClick(event));
+        processInventoryEvent(findSession(event.getWhoClicked(), event.getInventory()), handler -> handler.onClick(event));
     }
 
     /**
@@ -160,7 +817,7 @@ public class InventoryManager {
      * @param event The inventory open event.
      */
     void handleOpen(InventoryOpenEvent event) {
-        processInventoryEvent(event.getInventory(), handler -> handler.onOpen(event));
+        processInventoryEvent(findSession(event.getPlayer(), event.getInventory()), handler -> handler.onOpen(event));
     }
 
     /**
@@ -168,18 +825,51 @@ public class InventoryManager {
      * @param event The inventory close event.
      */
     void handleClose(InventoryCloseEvent event) {
-        Inventory inventory = event.getInventory();
-        processInventoryEvent(inventory, handler -> handler.onClose(event));
-        unregisterInventory(inventory);
+        MenuSession session = findSession(event.getPlayer(), event.getInventory());
+        if (session == null) return;
+        processInventoryEvent(session, handler -> handler.onClose(event));
+        unregisterSession(event.getPlayer().getUniqueId(), session);
+        cacheClosedSession(event.getPlayer().getUniqueId(), session);
+        clickThrottle.expireCooldowns(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Handles player quit events, forgetting the player's per-player state.
+     * @param event The player quit event.
+     */
+    void handleQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        clickThrottle.remove(playerId);
+        openQueue.remove(playerId);
+        // The menu of a quitting player is closed right after this event, anything left a tick later leaked.
+        Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+            closedSessions.remove(playerId);
+            navigation.remove(playerId);
+            MenuSession session = viewerSessions.remove(playerId);
+            if (session != null) {
+                leakedSessions++;
+                releaseSession(playerId, session);
+            }
+        });
     }
 
     /**
      * Processes inventory-related events with a given processor.
-     * @param inventory The inventory to process.
+     * @param session The session the event belongs to, or null if it is not an LLibrary menu.
      * @param eventProcessor The processor to handle the event.
      */
-    private void processInventoryEvent(Inventory inventory, InventoryEventProcessor eventProcessor) {
-        Optional.ofNullable(activeInventories.get(inventory)).ifPresent(eventProcessor::process);
+    private void processInventoryEvent(MenuSession session, InventoryEventProcessor eventProcessor) {
+        if (session == null) return;
+
+        boolean nested = dispatchingEvent;
+        dispatchingEvent = true;
+        try {
+            eventProcessor.process(session);
+        } finally {
+            dispatchingEvent = nested;
+        }
+        // Slots marked by the click and its actions are written before the event returns.
+        if (!nested) flushSessions();
     }
 
     /**
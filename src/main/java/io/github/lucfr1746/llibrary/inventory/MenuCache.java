@@ -0,0 +1,146 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Stores the {@link MenuDescriptor} of every menu file in a compact binary form, keyed by the SHA-256 of the file.
+ * <p>
+ * An unchanged menu file is loaded from its cache entry without going through the YAML parser.
+ * A changed file, or a cache entry written by another format version, falls back to the YAML and rewrites the entry.
+ * <p>
+ * Only the YAML parsing and the validation of the file are skipped. Actions and requirements are stored in their
+ * raw form and built again from the current loaders on every load, so types registered by other plugins still apply.
+ */
+final class MenuCache {
+
+    private static final int MAGIC = 0x4C4C4D43;
+    private static final int VERSION = 5;
+
+    private final Path folder;
+
+    /**
+     * Creates a cache stored in a folder.
+     * @param folder The folder holding the cache entries.
+     */
+    MenuCache(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Reads the descriptor of a menu file, from the cache if the file did not change.
+     * Safe to call from several threads for different files.
+     * @param file The menu file.
+     * @return The descriptor of the file.
+     * @throws IOException If the file cannot be read.
+     * @throws InvalidConfigurationException If the file is not valid YAML.
+     */
+    MenuDescriptor read(File file) throws IOException, InvalidConfigurationException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        byte[] hash = hash(content);
+        Path entry = this.folder.resolve(file.getName() + ".bin");
+
+        MenuDescriptor cached = readEntry(entry, hash);
+        if (cached != null) return cached;
+
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.loadFromString(new String(content, StandardCharsets.UTF_8));
+        MenuDescriptor descriptor = MenuDescriptor.of(configuration);
+        writeEntry(entry, hash, descriptor);
+        return descriptor;
+    }
+
+    /**
+     * Deletes the cache entries of menu files that no longer exist.
+     * @param fileNames The names of the existing menu files.
+     */
+    void prune(Set<String> fileNames) {
+        if (!Files.isDirectory(this.folder)) return;
+        try (Stream<Path> entries = Files.list(this.folder)) {
+            entries.filter(entry -> {
+                String name = entry.getFileName().toString();
+                return name.endsWith(".bin") && !fileNames.contains(name.substring(0, name.length() - 4));
+            }).forEach(entry -> {
+                try {
+                    Files.deleteIfExists(entry);
+                } catch (IOException e) {
+                    LLibrary.getPluginLogger().warning("Failed to delete the menu cache entry " + entry.getFileName() + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            LLibrary.getPluginLogger().warning("Failed to prune the menu cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the cache entry of a menu file, e.g. when the file was deleted.
+     * @param fileName The name of the menu file.
+     */
+    void remove(String fileName) {
+        Path entry = this.folder.resolve(fileName + ".bin");
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            LLibrary.getPluginLogger().warning("Failed to delete the menu cache entry " + entry.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private MenuDescriptor readEntry(Path entry, byte[] hash) {
+        if (!Files.isRegularFile(entry)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            byte[] cachedHash = new byte[hash.length];
+            in.readFully(cachedHash);
+            if (!Arrays.equals(hash, cachedHash)) return null;
+            return MenuDescriptor.read(in);
+        } catch (IOException | IllegalArgumentException e) {
+            // A truncated entry or an enum constant that no longer exists, the YAML is parsed again.
+            return null;
+        }
+    }
+
+    private void writeEntry(Path entry, byte[] hash, MenuDescriptor descriptor) {
+        Path temp = null;
+        try {
+            Files.createDirectories(this.folder);
+            temp = Files.createTempFile(this.folder, entry.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.write(hash);
+                descriptor.write(out);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LLibrary.getPluginLogger().warning("Failed to write the menu cache entry " + entry.getFileName() + ": " + e.getMessage());
+        } finally {
+            // Left behind only if the write or the move failed.
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.inventory.ItemFlag;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The content of a menu file once read and validated, before any action or requirement is created.
+ * <p>
+ * A descriptor is either read from the YAML of a menu file or from its binary form in the {@link MenuCache},
+ * then turned into an {@link InventoryBuilder} by {@link InventoryBuilder#load(MenuDescriptor)}.
+ */
+final class MenuDescriptor {
+
+    private static final byte STRING = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte LIST = 5;
+    private static final byte MAP = 6;
+    private static final byte NULL = 7;
+
+    final String id;
+    final String title;
+    final String menuType;
+    final int updateInterval;
+    final boolean asyncOpen;
+    final boolean shared;
+    final List<String> openCommands;
+    final List<RequirementDescriptor> openRequirements;
+    final List<String> openActions;
+    final List<ItemDescriptor> items;
+    final List<String> warnings;
+
+    private MenuDescriptor(String id, String title, String menuType, int updateInterval, boolean asyncOpen,
+                           boolean shared, List<String> openCommands, List<RequirementDescriptor> openRequirements,
+                           List<String> openActions, List<ItemDescriptor> items, List<String> warnings) {
+        this.id = id;
+        this.title = title;
+        this.menuType = menuType;
+        this.updateInterval = updateInterval;
+        this.asyncOpen = asyncOpen;
+        this.shared = shared;
+        this.openCommands = openCommands;
+        this.openRequirements = openRequirements;
+        this.openActions = openActions;
+        this.items = items;
+        this.warnings = warnings;
+    }
+
+    /**
+     * Checks whether the file described nothing at all, e.g. because it is being written.
+     * @return {@code true} if the descriptor is empty.
+     */
+    boolean isEmpty() {
+        return this.id == null && this.title == null && this.openCommands.isEmpty() && this.items.isEmpty();
+    }
+
+    /**
+     * Reads a descriptor from the YAML of a menu file.
+     * Problems found in the file are kept as {@link #warnings} instead of being logged here.
+     * @param section The root of the menu file.
+     * @return The descriptor.
+     */
+    static MenuDescriptor of(ConfigurationSection section) {
+        List<String> openCommands = new ArrayList<>();
+        Optional.ofNullable(section.get("open-command")).ifPresent(cmd -> {
+            if (cmd instanceof String) openCommands.add((String) cmd);
+            else openCommands.addAll(section.getStringList("open-command"));
+        });
+
+        List<ItemDescriptor> items = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        ConfigurationSection itemsSection = section.getConfigurationSection("items");
+        if (itemsSection != null) {
+            for (String key : itemsSection.getKeys(false)) {
+                ItemDescriptor item = ItemDescriptor.of(key, Objects.requireNonNull(itemsSection.getConfigurationSection(key)), warnings);
+                if (item != null) items.add(item);
+            }
+        }
+
+        return new MenuDescriptor(
+                section.getString("menu-id"),
+                section.getString("menu-title"),
+                section.getString("menu-type"),
+                section.contains("update-interval") ? section.getInt("update-interval") : -1,
+                section.getBoolean("async-open", false),
+                section.getBoolean("shared", false),
+                openCommands,
+                RequirementDescriptor.of(section.getConfigurationSection("open-requirement")),
+                section.contains("open-action") ? section.getStringList("open-action") : List.of(),
+                items, warnings);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        writeString(out, this.id);
+        writeString(out, this.title);
+        writeString(out, this.menuType);
+        out.writeInt(this.updateInterval);
+        out.writeBoolean(this.asyncOpen);
+        out.writeBoolean(this.shared);
+        writeStrings(out, this.openCommands);
+        RequirementDescriptor.write(out, this.openRequirements);
+        writeStrings(out, this.openActions);
+        out.writeInt(this.items.size());
+        for (ItemDescriptor item : this.items) item.write(out);
+        writeStrings(out, this.warnings);
+    }
+
+    static MenuDescriptor read(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String title = readString(in);
+        String menuType = readString(in);
+        int updateInterval = in.readInt();
+        boolean asyncOpen = in.readBoolean();
+        boolean shared = in.readBoolean();
+        List<String> openCommands = readStrings(in);
+        List<RequirementDescriptor> openRequirements = RequirementDescriptor.read(in);
+        List<String> openActions = readStrings(in);
+        int size = in.readInt();
+        List<ItemDescriptor> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) items.add(ItemDescriptor.read(in));
+        List<String> warnings = readStrings(in);
+        return new MenuDescriptor(id, title, menuType, updateInterval, asyncOpen, shared, openCommands, openRequirements, openActions, items, warnings);
+    }
+
+    /**
+     * A single entry of the {@code items} section.
+     */
+    static final class ItemDescriptor {
+
+        final String key;
+        final Material material;
+        final int[] slots;
+        final int priority;
+        final boolean update;
+        final int updateInterval;
+        final int clickCooldown;
+        final String displayName;
+        final List<String> lores;
+        final List<ItemFlag> flags;
+        final List<RequirementDescriptor> requirements;
+        final Map<String, List<String>> actions;
+        final List<FrameDescriptor> frames;
+        final int frameInterval;
+
+        private ItemDescriptor(String key, Material material, int[] slots, int priority, boolean update,
+                               int updateInterval, int clickCooldown, String displayName, List<String> lores,
+                               List<ItemFlag> flags, List<RequirementDescriptor> requirements,
+                               Map<String, List<String>> actions, List<FrameDescriptor> frames, int frameInterval) {
+            this.key = key;
+            this.material = material;
+            this.slots = slots;
+            this.priority = priority;
+            this.update = update;
+            this.updateInterval = updateInterval;
+            this.clickCooldown = clickCooldown;
+            this.displayName = displayName;
+            this.lores = lores;
+            this.flags = flags;
+            this.requirements = requirements;
+            this.actions = actions;
+            this.frames = frames;
+            this.frameInterval = frameInterval;
+        }
+
+        /**
+         * Gets the raw actions of an action key, e.g. {@code click-action}.
+         * @param key The action key.
+         * @return The actions, or an empty list if the key is not set.
+         */
+        List<String> getActions(String key) {
+            return this.actions.getOrDefault(key, List.of());
+        }
+
+        private static ItemDescriptor of(String key, ConfigurationSection item, List<String> warnings) {
+            Material material;
+            try {
+                material = Material.valueOf(item.getString("material"));
+            } catch (IllegalArgumentException e) {
+                warnings.add("There is no material named: " + item.getString("material") + ". Skipping this item...");
+                return null;
+            } catch (NullPointerException e) {
+                warnings.add("Missing material for item: " + key + ". Skipping this item...");
+                return null;
+            }
+
+            int[] slots;
+            if (item.getIntegerList("slot").isEmpty() && item.getInt("slot", -1) == -1) {
+                warnings.add("Missing slot for item: " + key + ". Skipping this item...");
+                return null;
+            } else if (item.getIntegerList("slot").isEmpty()) {
+                slots = new int[]{item.getInt("slot")};
+            } else {
+                slots = item.getIntegerList("slot").stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            List<ItemFlag> flags = new ArrayList<>();
+            if (item.contains("item-flags")) {
+                item.getStringList("item-flags").forEach(flag -> {
+                    try {
+                        flags.add(ItemFlag.valueOf(flag.toUpperCase()));
+                    } catch (IllegalArgumentException e) {
+                        warnings.add("Invalid item flag -> " + flag + ". Skipping this flag...");
+                    }
+                });
+            }
+
+            List<String> lores = new ArrayList<>();
+            Optional.ofNullable(item.get("lore")).ifPresent(lore -> {
+                if (lore instanceof String) lores.add((String) lore);
+                else lores.addAll(item.getStringList("lore"));
+            });
+
+            Map<String, List<String>> actions = new LinkedHashMap<>();
+            for (String actionKey : item.getKeys(false)) {
+                if (actionKey.endsWith("-action")) actions.put(actionKey, item.getStringList(actionKey));
+            }
+
+            List<FrameDescriptor> frames = new ArrayList<>();
+            for (Map<?, ?> frame : item.getMapList("frames")) {
+                FrameDescriptor descriptor = FrameDescriptor.of(key, frame, warnings);
+                if (descriptor != null) frames.add(descriptor);
+            }
+
+            return new ItemDescriptor(key, material, slots,
+                    item.getInt("priority", 0),
+                    item.getBoolean("update", false),
+                    item.getInt("update-interval", 0),
+                    item.getInt("click-cooldown", 0),
+                    item.getString("display-name", ""),
+                    lores, flags,
+                    RequirementDescriptor.of(item.getConfigurationSection("requirements")),
+                    actions, frames,
+                    item.getInt("frame-interval", 1));
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            writeString(out, this.key);
+            writeString(out, this.material.name());
+            out.writeInt(this.slots.length);
+            for (int slot : this.slots) out.writeInt(slot);
+            out.writeInt(this.priority);
+            out.writeBoolean(this.update);
+            out.writeInt(this.updateInterval);
+            out.writeInt(this.clickCooldown);
+            writeString(out, this.displayName);
+            writeStrings(out, this.lores);
+            out.writeInt(this.flags.size());
+            for (ItemFlag flag : this.flags) writeString(out, flag.name());
+            RequirementDescriptor.write(out, this.requirements);
+            out.writeInt(this.actions.size());
+            for (Map.Entry<String, List<String>> entry : this.actions.entrySet()) {
+                writeString(out, entry.getKey());
+                writeStrings(out, entry.getValue());
+            }
+            out.writeInt(this.frames.size());
+            for (FrameDescriptor frame : this.frames) frame.write(out);
+            out.writeInt(this.frameInterval);
+        }
+
+        private static ItemDescriptor read(DataInputStream in) throws IOException {
+            String key = readString(in);
+            Material material = Material.valueOf(readString(in));
+            int[] slots = new int[in.readInt()];
+            for (int i = 0; i < slots.length; i++) slots[i] = in.readInt();
+            int priority = in.readInt();
+            boolean update = in.readBoolean();
+            int updateInterval = in.readInt();
+            int clickCooldown = in.readInt();
+            String displayName = readString(in);
+            List<String> lores = readStrings(in);
+            int flagCount = in.readInt();
+            List<ItemFlag> flags = new ArrayList<>(flagCount);
+            for (int i = 0; i < flagCount; i++) flags.add(ItemFlag.valueOf(readString(in)));
+            List<RequirementDescriptor> requirements = RequirementDescriptor.read(in);
+            int actionCount = in.readInt();
+            Map<String, List<String>> actions = new LinkedHashMap<>();
+            for (int i = 0; i < actionCount; i++) actions.put(readString(in), readStrings(in));
+            int frameCount = in.readInt();
+            List<FrameDescriptor> frames = new ArrayList<>(frameCount);
+            for (int i = 0; i < frameCount; i++) frames.add(FrameDescriptor.read(in));
+            int frameInterval = in.readInt();
+            return new ItemDescriptor(key, material, slots, priority, update, updateInterval, clickCooldown,
+                    displayName, lores, flags, requirements, actions, frames, frameInterval);
+        }
+    }
+
+    /**
+     * A single entry of the {@code frames} list of an item.
+     * Unset values are taken from the item itself.
+     */
+    static final class FrameDescriptor {
+
+        final Material material;
+        final String displayName;
+        final List<String> lores;
+
+        private FrameDescriptor(Material material, String displayName, List<String> lores) {
+            this.material = material;
+            this.displayName = displayName;
+            this.lores = lores;
+        }
+
+        private static FrameDescriptor of(String key, Map<?, ?> frame, List<String> warnings) {
+            Material material = null;
+            Object materialName = frame.get("material");
+            if (materialName != null) {
+                try {
+                    material = Material.valueOf(String.valueOf(materialName));
+                } catch (IllegalArgumentException e) {
+                    warnings.add("There is no material named: " + materialName + ". Skipping this frame of " + key + "...");
+                    return null;
+                }
+            }
+
+            Object displayName = frame.get("display-name");
+            List<String> lores = null;
+            Object lore = frame.get("lore");
+            if (lore instanceof List<?> list) {
+                lores = new ArrayList<>(list.size());
+                for (Object line : list) lores.add(String.valueOf(line));
+            } else if (lore != null) {
+                lores = List.of(String.valueOf(lore));
+            }
+            return new FrameDescriptor(material, displayName == null ? null : String.valueOf(displayName), lores);
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            writeString(out, this.material == null ? null : this.material.name());
+            writeString(out, this.displayName);
+            out.writeBoolean(this.lores != null);
+            if (this.lores != null) writeStrings(out, this.lores);
+        }
+
+        private static FrameDescriptor read(DataInputStream in) throws IOException {
+            String material = readString(in);
+            String displayName = readString(in);
+            List<String> lores = in.readBoolean() ? readStrings(in) : null;
+            return new FrameDescriptor(material == null ? null : Material.valueOf(material), displayName, lores);
+        }
+    }
+
+    /**
+     * A single requirement of a requirement section, kept as its raw values
+     * so every requirement type, including the ones registered by other plugins, can be rebuilt.
+     * Nested sections are kept as maps and lists keep their values as they are, so nothing of the section is lost.
+     */
+    static final class RequirementDescriptor {
+
+        final String key;
+        final Map<String, Object> values;
+
+        private RequirementDescriptor(String key, Map<String, Object> values) {
+            this.key = key;
+            this.values = values;
+        }
+
+        /**
+         * Rebuilds a requirement section from descriptors, for the {@link io.github.lucfr1746.llibrary.requirement.RequirementLoader}.
+         * @param requirements The descriptors.
+         * @return The section, or {@code null} if there are no requirements.
+         */
+        static ConfigurationSection toSection(List<RequirementDescriptor> requirements) {
+            if (requirements.isEmpty()) return null;
+            MemoryConfiguration section = new MemoryConfiguration();
+            for (RequirementDescriptor requirement : requirements) {
+                section.createSection(requirement.key, requirement.values);
+            }
+            return section;
+        }
+
+        private static List<RequirementDescriptor> of(ConfigurationSection section) {
+            if (section == null) return List.of();
+            List<RequirementDescriptor> requirements = new ArrayList<>();
+            for (String key : section.getKeys(false)) {
+                ConfigurationSection requirement = section.getConfigurationSection(key);
+                if (requirement == null) continue;
+                requirements.add(new RequirementDescriptor(key, copyMap(requirement)));
+            }
+            return requirements;
+        }
+
+        /**
+         * Copies the values of a section, turning nested sections into maps.
+         */
+        private static Map<String, Object> copyMap(ConfigurationSection section) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String key : section.getKeys(false)) values.put(key, copyValue(section.get(key)));
+            return values;
+        }
+
+        private static Object copyValue(Object value) {
+            if (value == null || value instanceof Integer || value instanceof Long || value instanceof Double
+                    || value instanceof Boolean || value instanceof String) return value;
+            if (value instanceof ConfigurationSection section) return copyMap(section);
+            if (value instanceof Map<?, ?> map) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                map.forEach((key, entry) -> values.put(String.valueOf(key), copyValue(entry)));
+                return values;
+            }
+            if (value instanceof List<?> list) {
+                List<Object> values = new ArrayList<>(list.size());
+                for (Object entry : list) values.add(copyValue(entry));
+                return values;
+            }
+            if (value instanceof Float || value instanceof Short || value instanceof Byte) return ((Number) value).doubleValue();
+            return String.valueOf(value);
+        }
+
+        private static void write(DataOutputStream out, List<RequirementDescriptor> requirements) throws IOException {
+            out.writeInt(requirements.size());
+            for (RequirementDescriptor requirement : requirements) {
+                writeString(out, requirement.key);
+                writeValue(out, requirement.values);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List<RequirementDescriptor> read(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            List<RequirementDescriptor> requirements = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String key = readString(in);
+                Object values = readValue(in);
+                if (!(values instanceof Map<?, ?>)) throw new IOException("The values of requirement " + key + " are not a map");
+                requirements.add(new RequirementDescriptor(key, (Map<String, Object>) values));
+            }
+            return requirements;
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INTEGER);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object entry : list) writeValue(out, entry);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, (String) entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case INTEGER:
+                return Integer.valueOf(in.readInt());
+            case LONG:
+                return Long.valueOf(in.readLong());
+            case DOUBLE:
+                return Double.valueOf(in.readDouble());
+            case BOOLEAN:
+                return Boolean.valueOf(in.readBoolean());
+            case LIST: {
+                int size = in.readInt();
+                List<Object> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) values.add(readValue(in));
+                return values;
+            }
+            case MAP: {
+                int size = in.readInt();
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    values.put(key, readValue(in));
+                }
+                return values;
+            }
+            case STRING:
+                return readString(in);
+            case NULL:
+                return null;
+            default:
+                throw new IOException("Unknown value type -> " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) writeString(out, value);
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) values.add(readString(in));
+        return values;
+    }
+}
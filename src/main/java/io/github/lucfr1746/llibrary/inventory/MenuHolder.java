@@ -0,0 +1,38 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Marks an inventory as an LLibrary menu and links it back to its session.
+ * <p>
+ * Chest menus are created with this holder, so other plugins can recognise them
+ * with a single {@code instanceof MenuHolder} check.
+ */
+public final class MenuHolder implements InventoryHolder {
+
+    private final MenuSession session;
+    private Inventory inventory;
+
+    MenuHolder(MenuSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Gets the session this inventory belongs to.
+     * @return The menu session.
+     */
+    public MenuSession getSession() {
+        return this.session;
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return this.inventory;
+    }
+
+    void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+}
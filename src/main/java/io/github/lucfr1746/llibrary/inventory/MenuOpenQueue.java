@@ -0,0 +1,111 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.util.helper.LatencyTracker;
+import io.github.lucfr1746.llibrary.util.helper.StringUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces menu open requests and spreads them over ticks.
+ * <p>
+ * Requests are kept per player, so a player asking for several menus before the queue is drained only gets the last one.
+ * Each tick opens queued menus until the time budget is spent, then the rest waits for the next tick.
+ * Everything here runs on the main thread.
+ */
+final class MenuOpenQueue implements Runnable {
+
+    private final InventoryManager inventoryManager;
+    private final Map<UUID, PendingOpen> pending = new LinkedHashMap<>();
+    private final LatencyTracker batchLatency = new LatencyTracker(256);
+    private long budgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private boolean scheduled;
+    private long batchStart;
+    private int batchOpens;
+    private int batchTicks;
+
+    MenuOpenQueue(InventoryManager inventoryManager) {
+        this.inventoryManager = inventoryManager;
+    }
+
+    /**
+     * Queues a menu for a player, replacing the menu already queued for that player.
+     * @param menuID The ID of the menu.
+     * @param player The player.
+     */
+    void queue(String menuID, Player player) {
+        if (this.pending.isEmpty() && !this.scheduled) {
+            this.batchStart = System.nanoTime();
+            this.batchOpens = 0;
+            this.batchTicks = 0;
+        }
+        this.pending.put(player.getUniqueId(), new PendingOpen(menuID, player));
+        if (!this.scheduled) {
+            this.scheduled = true;
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), this);
+        }
+    }
+
+    /**
+     * Drops the queued menu of a player.
+     * @param playerId The UUID of the player.
+     */
+    void remove(UUID playerId) {
+        this.pending.remove(playerId);
+    }
+
+    /**
+     * Drops every queued menu.
+     */
+    void clear() {
+        this.pending.clear();
+    }
+
+    void setBudget(double millis) {
+        this.budgetNanos = Math.max(0L, (long) (millis * 1_000_000D));
+    }
+
+    double getBudget() {
+        return this.budgetNanos / 1_000_000D;
+    }
+
+    LatencyTracker getBatchLatency() {
+        return this.batchLatency;
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + this.budgetNanos;
+        this.batchTicks++;
+        // At least one menu opens per tick, however small the budget is.
+        do {
+            Iterator<PendingOpen> iterator = this.pending.values().iterator();
+            if (!iterator.hasNext()) break;
+            PendingOpen open = iterator.next();
+            iterator.remove();
+            if (!open.player().isOnline()) continue;
+            // The queue runs in its own task, outside any inventory event.
+            this.inventoryManager.openGUINow(open.menuID(), open.player());
+            this.batchOpens++;
+        } while (System.nanoTime() < deadline);
+
+        if (!this.pending.isEmpty()) {
+            Bukkit.getScheduler().runTask(LLibrary.getInstance(), this);
+            return;
+        }
+        this.scheduled = false;
+        long elapsed = System.nanoTime() - this.batchStart;
+        this.batchLatency.record(elapsed);
+        LLibrary.getPluginLogger().debug("Opened a batch of " + this.batchOpens + " menus in "
+                + StringUtil.formatNumber(elapsed / 1_000_000D, 2, false) + "ms over " + this.batchTicks + " ticks");
+    }
+
+    private record PendingOpen(String menuID, Player player) {
+    }
+}
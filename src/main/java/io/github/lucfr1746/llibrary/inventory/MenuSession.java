@@ -0,0 +1,556 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A single viewer's open instance of a {@link MenuTemplate}.
+ * <p>
+ * The session only holds what differs from the shared template: the viewer,
+ * the inventory view and the buttons that were refreshed for this viewer.
+ * <p>
+ * Refreshes only mark slots as dirty. Dirty slots are flushed once per tick by the
+ * {@link InventoryManager}, and a slot is only written when its button or icon changed.
+ */
+public class MenuSession implements InventoryHandler {
+
+    private final MenuTemplate template;
+    private Player viewer;
+    private InventoryView inventoryView;
+    private Inventory inventory;
+    private MenuHolder holder;
+    private InventoryButton[][] slotTable;
+    private boolean ownsSlotTable;
+    private final BitSet dirtySlots = new BitSet();
+    private final BitSet lockedSlots = new BitSet();
+    private final BitSet dynamicSlots;
+    private final BitSet animatedSlots;
+    private InventoryButton[] renderedButtons = new InventoryButton[0];
+    private ItemStack[] renderedIcons = new ItemStack[0];
+    private InventoryButton[] preparedButtons;
+    private ItemStack[] preparedIcons;
+    boolean flushQueued;
+    private int[] updateIntervals;
+    private BitSet[] updateSlots;
+    private List<MenuTicker.UpdateEntry> updateEntries;
+    private boolean updatesScheduled;
+    private MenuTicker.AnimationEntry animationEntry;
+
+    /**
+     * Creates a new session of a template for a viewer.
+     * @param template The compiled menu template.
+     * @param viewer The player viewing the menu.
+     */
+    public MenuSession(MenuTemplate template, Player viewer) {
+        this.template = template;
+        this.viewer = viewer;
+        this.slotTable = template.slotTable();
+        this.dynamicSlots = (BitSet) template.dynamicSlots().clone();
+        this.animatedSlots = (BitSet) template.animatedSlots().clone();
+        this.updateIntervals = template.updateIntervals();
+        this.updateSlots = new BitSet[this.updateIntervals.length];
+        for (int i = 0; i < this.updateSlots.length; i++) {
+            this.updateSlots[i] = (BitSet) template.updateSlots()[i].clone();
+        }
+    }
+
+    public MenuTemplate getTemplate() {
+        return this.template;
+    }
+
+    public Player getViewer() {
+        return this.viewer;
+    }
+
+    /**
+     * Changes the player the session is rendered for.
+     * @param viewer The new viewer.
+     */
+    void setViewer(Player viewer) {
+        this.viewer = viewer;
+    }
+
+    /**
+     * Gets the view the viewer is looking at.
+     * @return The inventory view, or {@code null} if the menu was not opened yet.
+     */
+    public @Nullable InventoryView getInventoryView() {
+        return this.inventoryView;
+    }
+
+    public Inventory getInventory() {
+        return this.inventory;
+    }
+
+    /**
+     * Gets the holder marking the inventory of this session.
+     * @return The holder, or {@code null} if the menu is not a chest.
+     */
+    public @Nullable MenuHolder getHolder() {
+        return this.holder;
+    }
+
+    /**
+     * Checks whether an inventory is the one of this session, by identity.
+     * @param inventory The inventory.
+     * @return {@code true} if the inventory belongs to this session.
+     */
+    boolean owns(Inventory inventory) {
+        return inventory == this.inventory || (this.holder != null && inventory.getHolder() == this.holder);
+    }
+
+    /**
+     * Gets the buttons of a slot for this viewer, sorted from the highest to the lowest priority.
+     * @param slot The raw slot.
+     * @return The buttons of the slot, or an empty list if there are none.
+     */
+    public List<InventoryButton> getSlotButtons(int slot) {
+        InventoryButton[] buttons = slotButtons(slot);
+        return buttons == null ? List.of() : Collections.unmodifiableList(Arrays.asList(buttons));
+    }
+
+    /**
+     * Resolves the highest priority button of a slot visible to a player.
+     * @param slot The raw slot.
+     * @param player The player to evaluate view requirements against.
+     * @return The visible button, or {@code null} if there is none.
+     */
+    public @Nullable InventoryButton resolveButton(int slot, Player player) {
+        return resolveButton(slot, new RenderContext(player));
+    }
+
+    /**
+     * Resolves the highest priority button of a slot visible to the player of a render context.
+     * @param slot The raw slot.
+     * @param context The context memoizing requirement results for the current pass.
+     * @return The visible button, or {@code null} if there is none.
+     */
+    public @Nullable InventoryButton resolveButton(int slot, RenderContext context) {
+        InventoryButton[] buttons = slotButtons(slot);
+        if (buttons == null) return null;
+        for (InventoryButton button : buttons) {
+            if (context.canView(button)) return button;
+        }
+        return null;
+    }
+
+    private InventoryButton[] slotButtons(int slot) {
+        return slot >= 0 && slot < this.slotTable.length ? this.slotTable[slot] : null;
+    }
+
+    /**
+     * Creates the inventory view and renders every button for the viewer.
+     */
+    public void decorate() {
+        prepare();
+        commit();
+    }
+
+    /**
+     * First stage of an open: resolves the visible button and the icon of every slot.
+     * This stage does not touch the inventory, so it may run off the main thread
+     * when the menu's creators and requirements are thread-safe.
+     */
+    protected void prepare() {
+        InventoryButton[] buttons = new InventoryButton[this.slotTable.length];
+        ItemStack[] icons = new ItemStack[this.slotTable.length];
+        RenderContext context = new RenderContext(this.viewer);
+        for (int slot = 0; slot < this.slotTable.length; slot++) {
+            if (this.slotTable[slot] == null) continue;
+            InventoryButton button = resolveButton(slot, context);
+            buttons[slot] = button;
+            icons[slot] = button == null ? null : button.getIcon(this.viewer);
+        }
+        this.preparedButtons = buttons;
+        this.preparedIcons = icons;
+    }
+
+    /**
+     * Second stage of an open, on the main thread: creates the inventory and writes the prepared icons.
+     * Chest menus are created with a {@link MenuHolder}, other menus from their menu type.
+     */
+    protected void commit() {
+        if (this.preparedIcons == null) prepare();
+        int chestSize = this.template.getChestSize();
+        if (chestSize > 0) {
+            this.holder = new MenuHolder(this);
+            this.inventory = Bukkit.createInventory(this.holder, chestSize, this.template.getTitle());
+            this.holder.setInventory(this.inventory);
+        } else {
+            this.inventoryView = this.template.getMenuType().typed().create(this.viewer, this.template.getTitle());
+            this.inventory = this.inventoryView.getTopInventory();
+        }
+        Inventory inventory = this.inventory;
+        int size = inventory.getSize();
+        this.renderedButtons = new InventoryButton[size];
+        this.renderedIcons = new ItemStack[size];
+        for (int slot = 0; slot < this.preparedIcons.length; slot++) {
+            if (slot >= size) {
+                if (this.slotTable[slot] != null)
+                    LLibrary.getPluginLogger().warning("The slot -> " + slot + " is out of of inventory size. Skipping...");
+                continue;
+            }
+            this.renderedButtons[slot] = this.preparedButtons[slot];
+            this.renderedIcons[slot] = this.preparedIcons[slot];
+            if (this.preparedIcons[slot] != null) inventory.setItem(slot, this.preparedIcons[slot]);
+        }
+        this.preparedButtons = null;
+        this.preparedIcons = null;
+    }
+
+    /**
+     * Prepares a closed session to be shown again, reusing its inventory.
+     * Slots whose content no longer matches the rendered icon, e.g. because another plugin wrote to the inventory,
+     * are restored first, then the dynamic slots are rendered again.
+     */
+    void reopen() {
+        Inventory inventory = getInventory();
+        for (int slot = 0; slot < this.renderedIcons.length; slot++) {
+            ItemStack rendered = this.renderedIcons[slot];
+            ItemStack current = inventory.getItem(slot);
+            if (rendered == null ? current == null || current.getType().isAir() : rendered.equals(current)) continue;
+            if (rendered == null) inventory.clear(slot);
+            else inventory.setItem(slot, rendered);
+        }
+        this.dirtySlots.or(this.dynamicSlots);
+        flush();
+    }
+
+    /**
+     * Checks whether the inventory of this session can be shown again after it was closed.
+     * Only holder-backed chest inventories can be reopened, other menu types may hand their content to the player when closed.
+     * The menu must also lock every slot, otherwise the viewer may have moved items into or out of the inventory.
+     * @return {@code true} if the session can be reopened.
+     */
+    boolean isReusable() {
+        return this.holder != null && this.template.getLockMode() == InventoryBuilder.LockMode.ALL;
+    }
+
+    /**
+     * Shows the committed inventory to the viewer.
+     * @return {@code true} if the viewer is now looking at this menu, {@code false} if the open was cancelled.
+     */
+    boolean open() {
+        if (this.holder != null) {
+            InventoryView view = this.viewer.openInventory(this.inventory);
+            if (view == null) return false;
+            this.inventoryView = view;
+        } else {
+            this.viewer.openInventory(this.inventoryView);
+        }
+        return owns(this.viewer.getOpenInventory().getTopInventory());
+    }
+
+    /**
+     * Replaces the button with the same priority in a slot for this viewer only.
+     * The slot is re-rendered at the end of the tick.
+     * @param slot The raw slot.
+     * @param button The new button.
+     */
+    public void refreshButton(int slot, InventoryButton button) {
+        putButton(slot, button);
+        markDirty(slot);
+    }
+
+    /**
+     * Merges the given buttons into this viewer's slots.
+     * The merged slots are re-rendered at the end of the tick.
+     * @param newButtonMap The buttons to merge, keyed by raw slot.
+     */
+    public void refreshButtons(Map<Integer, ? extends Collection<InventoryButton>> newButtonMap) {
+        newButtonMap.forEach((slot, buttons) -> {
+            buttons.forEach(button -> putButton(slot, button));
+            markDirty(slot);
+        });
+    }
+
+    /**
+     * Re-evaluates every slot at the end of the tick, e.g. after the viewer's permissions changed.
+     */
+    public void refresh() {
+        for (int slot = 0; slot < this.slotTable.length; slot++) {
+            if (this.slotTable[slot] != null) markDirty(slot);
+        }
+    }
+
+    /**
+     * Marks a slot as needing a re-render and queues this session for the end-of-tick flush.
+     * Must be called on the main thread.
+     * @param slot The raw slot.
+     */
+    public void markDirty(int slot) {
+        if (slot < 0) return;
+        this.dirtySlots.set(slot);
+        if (!this.flushQueued) {
+            this.flushQueued = true;
+            LLibrary.getInventoryManager().queueFlush(this);
+        }
+    }
+
+    /**
+     * Marks several slots as needing a re-render and queues this session for the end-of-tick flush.
+     * Must be called on the main thread.
+     * @param slots The raw slots.
+     */
+    public void markDirty(BitSet slots) {
+        this.dirtySlots.or(slots);
+        if (!this.flushQueued) {
+            this.flushQueued = true;
+            LLibrary.getInventoryManager().queueFlush(this);
+        }
+    }
+
+    /**
+     * Re-renders every dirty slot, writing only the slots whose button or icon changed.
+     */
+    void flush() {
+        this.flushQueued = false;
+        if (this.inventory == null) {
+            this.dirtySlots.clear();
+            return;
+        }
+        RenderContext context = new RenderContext(this.viewer);
+        for (int slot = this.dirtySlots.nextSetBit(0); slot >= 0; slot = this.dirtySlots.nextSetBit(slot + 1)) {
+            updateButton(slot, context);
+        }
+        this.dirtySlots.clear();
+    }
+
+    /**
+     * Replaces every button of a slot for this viewer only.
+     * The slot is re-rendered at the end of the tick.
+     * @param slot The raw slot.
+     * @param button The only button of the slot, or {@code null} to empty it.
+     */
+    protected void setSlotButton(int slot, @Nullable InventoryButton button) {
+        if (slot < 0) return;
+        ensureOwnSlotTable(slot);
+        this.slotTable[slot] = button == null ? null : new InventoryButton[]{button};
+        this.dynamicSlots.set(slot);
+        if (button != null) {
+            trackUpdates(slot, button);
+            trackAnimation(slot, button);
+        }
+        markDirty(slot);
+    }
+
+    private void ensureOwnSlotTable(int slot) {
+        if (!this.ownsSlotTable || slot >= this.slotTable.length) {
+            this.slotTable = Arrays.copyOf(this.slotTable, Math.max(this.slotTable.length, slot + 1));
+            this.ownsSlotTable = true;
+        }
+    }
+
+    /**
+     * Copies the shared slot table on the first change so the template is never touched,
+     * then replaces the slot's array with a new priority-sorted one.
+     */
+    private void putButton(int slot, InventoryButton button) {
+        if (slot < 0) return;
+        ensureOwnSlotTable(slot);
+
+        InventoryButton[] current = this.slotTable[slot];
+        List<InventoryButton> buttons = new ArrayList<>(current == null ? 1 : current.length + 1);
+        if (current != null) {
+            for (InventoryButton existing : current) {
+                if (existing.getPriority() != button.getPriority()) buttons.add(existing);
+            }
+        }
+        buttons.add(button);
+        buttons.sort(Comparator.comparingInt(InventoryButton::getPriority).reversed());
+        this.slotTable[slot] = buttons.toArray(new InventoryButton[0]);
+        this.dynamicSlots.set(slot);
+        trackUpdates(slot, button);
+        trackAnimation(slot, button);
+    }
+
+    /**
+     * Adds the slot of an animated button to the animated slots,
+     * starting the animation of this session right away if it is already live.
+     */
+    private void trackAnimation(int slot, InventoryButton button) {
+        if (!(button instanceof AnimatedButton)) return;
+        this.animatedSlots.set(slot);
+        if (this.updatesScheduled && this.animationEntry == null) LLibrary.getInventoryManager().getTicker().animate(this);
+    }
+
+    /**
+     * Adds the slot of an updating button to the slots refreshed at its interval,
+     * scheduling a new interval right away if the session is already live.
+     */
+    private void trackUpdates(int slot, InventoryButton button) {
+        int interval = this.template.getUpdateInterval(button);
+        if (interval <= 0) return;
+        for (int i = 0; i < this.updateIntervals.length; i++) {
+            if (this.updateIntervals[i] == interval) {
+                this.updateSlots[i].set(slot);
+                return;
+            }
+        }
+
+        BitSet slots = new BitSet();
+        slots.set(slot);
+        this.updateIntervals = Arrays.copyOf(this.updateIntervals, this.updateIntervals.length + 1);
+        this.updateIntervals[this.updateIntervals.length - 1] = interval;
+        this.updateSlots = Arrays.copyOf(this.updateSlots, this.updateSlots.length + 1);
+        this.updateSlots[this.updateSlots.length - 1] = slots;
+        if (this.updatesScheduled) LLibrary.getInventoryManager().getTicker().schedule(this, interval, slots);
+    }
+
+    int[] getUpdateIntervals() {
+        return this.updateIntervals;
+    }
+
+    BitSet getUpdateSlots(int index) {
+        return this.updateSlots[index];
+    }
+
+    boolean hasAnimatedSlots() {
+        return !this.animatedSlots.isEmpty();
+    }
+
+    void setAnimationEntry(MenuTicker.AnimationEntry entry) {
+        this.animationEntry = entry;
+    }
+
+    /**
+     * Writes the next frame of every animated slot whose frame changes on this tick.
+     * Only the rendered button of a slot is animated, view requirements are re-evaluated by the regular updates.
+     * @param tick The tick of the menu ticker.
+     */
+    void animate(long tick) {
+        if (this.inventory == null) return;
+        int size = this.renderedButtons.length;
+        for (int slot = this.animatedSlots.nextSetBit(0); slot >= 0 && slot < size; slot = this.animatedSlots.nextSetBit(slot + 1)) {
+            if (!(this.renderedButtons[slot] instanceof AnimatedButton button) || !button.isFrameChanging(tick)) continue;
+            ItemStack frame = button.getFrame(tick);
+            if (frame == this.renderedIcons[slot]) continue;
+            this.renderedIcons[slot] = frame;
+            this.inventory.setItem(slot, frame);
+        }
+    }
+
+    void setUpdatesScheduled(boolean updatesScheduled) {
+        this.updatesScheduled = updatesScheduled;
+    }
+
+    void addUpdateEntry(MenuTicker.UpdateEntry entry) {
+        if (this.updateEntries == null) this.updateEntries = new ArrayList<>(this.updateIntervals.length);
+        this.updateEntries.add(entry);
+    }
+
+    void cancelUpdateEntries() {
+        if (this.updateEntries == null) return;
+        for (MenuTicker.UpdateEntry entry : this.updateEntries) {
+            entry.cancelled = true;
+        }
+        this.updateEntries = null;
+        if (this.animationEntry != null) {
+            this.animationEntry.cancelled = true;
+            this.animationEntry = null;
+        }
+    }
+
+    private void updateButton(int slot, RenderContext context) {
+        if (slot >= this.renderedButtons.length) {
+            if (slotButtons(slot) != null)
+                LLibrary.getPluginLogger().warning("The slot -> " + slot + " is out of of inventory size. Skipping...");
+            return;
+        }
+
+        InventoryButton button = resolveButton(slot, context);
+        ItemStack icon = button == null ? null : button.getIcon(this.viewer);
+        ItemStack rendered = this.renderedIcons[slot];
+        this.renderedButtons[slot] = button;
+        if (icon == rendered || (icon != null && icon.equals(rendered))) return;
+
+        this.renderedIcons[slot] = icon;
+        if (icon == null) getInventory().clear(slot);
+        else getInventory().setItem(slot, icon);
+    }
+
+    /**
+     * Unlocks a slot once the asynchronous handler of its button is done.
+     * @param slot The raw slot.
+     */
+    void unlockSlot(int slot) {
+        this.lockedSlots.clear(slot);
+    }
+
+    /**
+     * Checks whether a slot ignores clicks because the asynchronous handler of its button is running.
+     * @param slot The raw slot.
+     * @return {@code true} if the slot is locked.
+     */
+    public boolean isSlotLocked(int slot) {
+        return slot >= 0 && this.lockedSlots.get(slot);
+    }
+
+    @Override
+    public void onClick(InventoryClickEvent event) {
+        if (event.getClickedInventory() == null) return;
+
+        boolean isPlayerInventory = event.getClickedInventory() instanceof PlayerInventory;
+
+        switch (this.template.getLockMode()) {
+            case GUI -> event.setCancelled(!isPlayerInventory);
+            case PLAYER -> event.setCancelled(isPlayerInventory);
+            case NONE -> event.setCancelled(false);
+            default -> event.setCancelled(true);
+        }
+
+        Player clicker = (Player) event.getWhoClicked();
+        int slot = event.getRawSlot();
+        if (slot >= 0 && this.lockedSlots.get(slot)) {
+            event.setCancelled(true);
+            return;
+        }
+
+        // Only button clicks are throttled, moving items around is left alone.
+        // The throttle is checked before resolving the button so that rejected clicks skip the view requirements.
+        if (slotButtons(slot) == null) {
+            this.template.getOwner().onClick(event);
+            return;
+        }
+        ClickThrottle throttle = LLibrary.getInventoryManager().getClickThrottle();
+        if (!throttle.tryAcquire(clicker)) {
+            event.setCancelled(true);
+            return;
+        }
+        InventoryButton button = resolveButton(slot, new RenderContext(clicker));
+        if (button != null && !throttle.tryClick(clicker, button)) {
+            event.setCancelled(true);
+            return;
+        }
+        if (button != null && button.getEventConsumer() != null) {
+            button.getEventConsumer().accept(event);
+        }
+        if (button != null && button.getAsyncConsumer() != null) {
+            if (button.isLockWhileRunning()) this.lockedSlots.set(slot);
+            LLibrary.getInventoryManager().runAsyncClick(this, slot, button, ClickSnapshot.of(event, this, button));
+        }
+
+        this.template.getOwner().onClick(event);
+    }
+
+    @Override
+    public void onOpen(InventoryOpenEvent event) {
+        this.template.getOwner().onOpen(event);
+    }
+
+    @Override
+    public void onClose(InventoryCloseEvent event) {
+        this.template.getOwner().onClose(event);
+    }
+}
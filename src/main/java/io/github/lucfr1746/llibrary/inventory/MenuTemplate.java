@@ -0,0 +1,246 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import io.github.lucfr1746.llibrary.action.Action;
+import io.github.lucfr1746.llibrary.requirement.Requirement;
+import org.bukkit.inventory.MenuType;
+
+import java.util.*;
+
+/**
+ * An immutable, compiled snapshot of an {@link InventoryBuilder}.
+ * <p>
+ * A template is compiled once and shared by every viewer of the menu.
+ * Per-viewer state lives in a {@link MenuSession} instead.
+ */
+public final class MenuTemplate {
+
+    private final InventoryBuilder owner;
+    private final String id;
+    private final String title;
+    private final MenuType menuType;
+    private final int chestSize;
+    private final InventoryBuilder.LockMode lockMode;
+    private final InventoryButton[][] slotTable;
+    private final int updateInterval;
+    private final boolean asyncOpen;
+    private final boolean shared;
+    private final int[] updateIntervals;
+    private final BitSet[] updateSlots;
+    private final BitSet dynamicSlots = new BitSet();
+    private final BitSet animatedSlots = new BitSet();
+    private final List<Requirement> openRequirements;
+    private final List<Action> openActions;
+    private final List<String> openCommands;
+
+    MenuTemplate(InventoryBuilder owner) {
+        this.owner = owner;
+        this.id = owner.getId();
+        this.title = owner.getTitle();
+        this.menuType = owner.getMenuType();
+        this.chestSize = chestSize(this.menuType);
+        this.lockMode = owner.getLockMode();
+        this.updateInterval = owner.getUpdateInterval();
+        this.asyncOpen = owner.isAsyncOpen();
+        // A paginated menu keeps its current page in its own session, which a shared menu never creates.
+        this.shared = owner.isShared() && this.chestSize > 0 && !(owner instanceof PaginatedInventoryBuilder);
+        if (owner.isShared() && this.chestSize <= 0) {
+            LLibrary.getPluginLogger().warning("Only chest menus can be shared, the menu " + this.id + " is opened per viewer instead.");
+        } else if (owner.isShared() && !this.shared) {
+            LLibrary.getPluginLogger().warning("Paginated menus cannot be shared, the menu " + this.id + " is opened per viewer instead.");
+        }
+        this.openRequirements = List.copyOf(owner.getOpenRequirements());
+        this.openActions = List.copyOf(owner.getOpenActions());
+        this.openCommands = List.copyOf(owner.getOpenCommands());
+
+        Map<Integer, TreeSet<InventoryButton>> buttonMap = owner.getButtonMap();
+        int size = 0;
+        for (int slot : buttonMap.keySet()) {
+            if (slot >= 0) size = Math.max(size, slot + 1);
+        }
+        this.slotTable = new InventoryButton[size][];
+        buttonMap.forEach((slot, slotButtons) -> {
+            if (slot >= 0 && !slotButtons.isEmpty()) this.slotTable[slot] = slotButtons.toArray(new InventoryButton[0]);
+        });
+
+        Map<Integer, BitSet> updates = new LinkedHashMap<>();
+        for (int slot = 0; slot < this.slotTable.length; slot++) {
+            if (this.slotTable[slot] == null) continue;
+            for (InventoryButton button : this.slotTable[slot]) {
+                int interval = getUpdateInterval(button);
+                if (interval > 0) updates.computeIfAbsent(interval, k -> new BitSet()).set(slot);
+                if (isDynamic(button)) this.dynamicSlots.set(slot);
+                if (button instanceof AnimatedButton) this.animatedSlots.set(slot);
+            }
+        }
+        this.updateIntervals = updates.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.updateSlots = updates.values().toArray(new BitSet[0]);
+    }
+
+    /**
+     * Gets the builder this template was compiled from.
+     * @return The owning InventoryBuilder.
+     */
+    public InventoryBuilder getOwner() {
+        return this.owner;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public MenuType getMenuType() {
+        return this.menuType;
+    }
+
+    public InventoryBuilder.LockMode getLockMode() {
+        return this.lockMode;
+    }
+
+    /**
+     * Gets the size of the chest inventory backing this menu.
+     * Chest menus are created with a {@link MenuHolder}, other menu types are created from their {@link MenuType}.
+     * @return The inventory size, or {@code -1} if the menu is not a chest.
+     */
+    public int getChestSize() {
+        return this.chestSize;
+    }
+
+    /**
+     * Checks whether the menu is prepared off the main thread when opened.
+     * @return {@code true} if the icons and view requirements are thread-safe.
+     */
+    public boolean isAsyncOpen() {
+        return this.asyncOpen;
+    }
+
+    /**
+     * Checks whether every viewer of this menu shares a single inventory.
+     * @return {@code true} if the menu is shared.
+     */
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    /**
+     * Gets the default update interval of the updating buttons of this menu.
+     * @return The interval in ticks.
+     */
+    public int getUpdateInterval() {
+        return this.updateInterval;
+    }
+
+    /**
+     * Gets the interval a button is re-rendered at in this menu.
+     * @param button The button.
+     * @return The interval in ticks, or {@code 0} if the button is not updating.
+     */
+    public int getUpdateInterval(InventoryButton button) {
+        if (!button.isUpdating()) return 0;
+        return button.getUpdateInterval() > 0 ? button.getUpdateInterval() : this.updateInterval;
+    }
+
+    /**
+     * Gets the distinct update intervals used by the buttons of this menu.
+     * The returned array is shared and must never be modified.
+     */
+    int[] updateIntervals() {
+        return this.updateIntervals;
+    }
+
+    /**
+     * Gets the slots holding updating buttons, parallel to {@link #updateIntervals()}.
+     * The returned sets are shared and must never be modified.
+     */
+    BitSet[] updateSlots() {
+        return this.updateSlots;
+    }
+
+    /**
+     * Gets the slots whose rendering may differ between two opens:
+     * slots with a viewer-dependent or animated icon, or with view requirements.
+     * The returned set is shared and must never be modified.
+     */
+    BitSet dynamicSlots() {
+        return this.dynamicSlots;
+    }
+
+    /**
+     * Gets the slots holding animated buttons.
+     * The returned set is shared and must never be modified.
+     */
+    BitSet animatedSlots() {
+        return this.animatedSlots;
+    }
+
+    /**
+     * Checks whether the rendering of a button may change between two opens.
+     * @param button The button.
+     * @return {@code true} if its icon depends on the viewer or the tick, or it has view requirements.
+     */
+    static boolean isDynamic(InventoryButton button) {
+        return !button.isStaticIcon() || button instanceof AnimatedButton || (button.getViewRequirements() != null && !button.getViewRequirements().isEmpty());
+    }
+
+    /**
+     * Gets the number of entries in the slot table, one past the highest slot holding a button.
+     * @return The slot table length.
+     */
+    public int getSlotCount() {
+        return this.slotTable.length;
+    }
+
+    /**
+     * Gets the buttons of a slot, sorted from the highest to the lowest priority.
+     * @param slot The raw slot.
+     * @return The buttons of the slot, or an empty list if there are none.
+     */
+    public List<InventoryButton> getSlotButtons(int slot) {
+        InventoryButton[] buttons = slotButtons(slot);
+        return buttons == null ? List.of() : Collections.unmodifiableList(Arrays.asList(buttons));
+    }
+
+    /**
+     * Gets the raw slot table, indexed by raw slot. Empty slots are {@code null}.
+     * The returned arrays are shared and must never be modified.
+     * @return The slot table.
+     */
+    InventoryButton[][] slotTable() {
+        return this.slotTable;
+    }
+
+    /**
+     * Gets the priority-sorted buttons of a slot without allocating.
+     * @param slot The raw slot.
+     * @return The shared button array, or {@code null} if the slot is empty.
+     */
+    InventoryButton[] slotButtons(int slot) {
+        return slot >= 0 && slot < this.slotTable.length ? this.slotTable[slot] : null;
+    }
+
+    public List<Requirement> getOpenRequirements() {
+        return this.openRequirements;
+    }
+
+    public List<Action> getOpenActions() {
+        return this.openActions;
+    }
+
+    public List<String> getOpenCommands() {
+        return this.openCommands;
+    }
+
+    private static int chestSize(MenuType menuType) {
+        if (menuType == MenuType.GENERIC_9X1) return 9;
+        if (menuType == MenuType.GENERIC_9X2) return 18;
+        if (menuType == MenuType.GENERIC_9X3) return 27;
+        if (menuType == MenuType.GENERIC_9X4) return 36;
+        if (menuType == MenuType.GENERIC_9X5) return 45;
+        if (menuType == MenuType.GENERIC_9X6) return 54;
+        return -1;
+    }
+}
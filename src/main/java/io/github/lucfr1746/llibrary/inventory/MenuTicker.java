@@ -0,0 +1,176 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import java.util.*;
+
+/**
+ * The single repeating task that drives every live menu.
+ * <p>
+ * Sessions with updating buttons are placed into buckets per update interval.
+ * An interval of {@code n} ticks has {@code n} buckets and only one of them fires per tick,
+ * so sessions sharing an interval are spread over the ticks instead of all refreshing at once.
+ * <p>
+ * Sessions showing {@link AnimatedButton}s are also advanced every tick, writing their prebuilt frames directly.
+ */
+final class MenuTicker implements Runnable {
+
+    private final InventoryManager inventoryManager;
+    private final Map<Integer, UpdateBuckets> updateBuckets = new HashMap<>();
+    private final List<AnimationEntry> animations = new ArrayList<>();
+    private volatile long tick;
+
+    MenuTicker(InventoryManager inventoryManager) {
+        this.inventoryManager = inventoryManager;
+    }
+
+    /**
+     * Starts refreshing the updating slots of a session.
+     * @param session The open session.
+     */
+    void schedule(MenuSession session) {
+        session.setUpdatesScheduled(true);
+        int[] intervals = session.getUpdateIntervals();
+        for (int i = 0; i < intervals.length; i++) {
+            schedule(session, intervals[i], session.getUpdateSlots(i));
+        }
+        if (session.hasAnimatedSlots()) animate(session);
+    }
+
+    /**
+     * Starts animating the animated slots of a session.
+     * @param session The open session.
+     */
+    void animate(MenuSession session) {
+        AnimationEntry entry = new AnimationEntry(session);
+        session.setAnimationEntry(entry);
+        this.animations.add(entry);
+    }
+
+    /**
+     * Starts refreshing some slots of a session every {@code interval} ticks.
+     * @param session The open session.
+     * @param interval The update interval in ticks.
+     * @param slots The slots to refresh.
+     */
+    void schedule(MenuSession session, int interval, BitSet slots) {
+        if (interval <= 0 || slots.isEmpty()) return;
+        UpdateEntry entry = new UpdateEntry(session, slots);
+        session.addUpdateEntry(entry);
+        this.updateBuckets.computeIfAbsent(interval, UpdateBuckets::new).add(entry);
+    }
+
+    /**
+     * Stops refreshing a session. The entries are dropped lazily the next time their bucket fires.
+     * @param session The closed session.
+     */
+    void unschedule(MenuSession session) {
+        session.setUpdatesScheduled(false);
+        session.cancelUpdateEntries();
+    }
+
+    /**
+     * Gets the current tick, which selects the frame of every animated button.
+     * @return The number of ticks since the ticker started.
+     */
+    long getTick() {
+        return this.tick;
+    }
+
+    @Override
+    public void run() {
+        long currentTick = ++this.tick;
+        for (int i = this.animations.size() - 1; i >= 0; i--) {
+            AnimationEntry entry = this.animations.get(i);
+            if (entry.cancelled) {
+                int last = this.animations.size() - 1;
+                this.animations.set(i, this.animations.get(last));
+                this.animations.remove(last);
+                continue;
+            }
+            entry.session.animate(currentTick);
+        }
+
+        Iterator<UpdateBuckets> iterator = this.updateBuckets.values().iterator();
+        while (iterator.hasNext()) {
+            UpdateBuckets buckets = iterator.next();
+            buckets.fire(currentTick);
+            if (buckets.size == 0) iterator.remove();
+        }
+        // Also flushes the sessions marked outside inventory events since the last pass.
+        this.inventoryManager.flushSessions();
+    }
+
+    /**
+     * A session's slots sharing one update interval.
+     */
+    static final class UpdateEntry {
+
+        final MenuSession session;
+        final BitSet slots;
+        boolean cancelled;
+
+        UpdateEntry(MenuSession session, BitSet slots) {
+            this.session = session;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * A session being animated.
+     */
+    static final class AnimationEntry {
+
+        final MenuSession session;
+        boolean cancelled;
+
+        AnimationEntry(MenuSession session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * The buckets of one update interval, one bucket per tick of the interval.
+     */
+    private static final class UpdateBuckets {
+
+        private final List<UpdateEntry>[] buckets;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        UpdateBuckets(int interval) {
+            this.buckets = new List[interval];
+            for (int i = 0; i < interval; i++) {
+                this.buckets[i] = new ArrayList<>();
+            }
+        }
+
+        /**
+         * Adds an entry to the least loaded bucket.
+         */
+        void add(UpdateEntry entry) {
+            List<UpdateEntry> target = this.buckets[0];
+            for (List<UpdateEntry> bucket : this.buckets) {
+                if (bucket.size() < target.size()) target = bucket;
+            }
+            target.add(entry);
+            this.size++;
+        }
+
+        /**
+         * Marks the slots of every entry in the bucket due this tick as dirty.
+         */
+        void fire(long tick) {
+            List<UpdateEntry> bucket = this.buckets[(int) (tick % this.buckets.length)];
+            for (int i = bucket.size() - 1; i >= 0; i--) {
+                UpdateEntry entry = bucket.get(i);
+                if (entry.cancelled) {
+                    int last = bucket.size() - 1;
+                    bucket.set(i, bucket.get(last));
+                    bucket.remove(last);
+                    this.size--;
+                    continue;
+                }
+                entry.session.markDirty(entry.slots);
+            }
+        }
+    }
+}
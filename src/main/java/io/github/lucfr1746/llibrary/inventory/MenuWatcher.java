@@ -0,0 +1,133 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the menu folder and hot reloads the menu files that changed.
+ * <p>
+ * Changes are debounced per file, then the file is parsed through the {@link MenuCache} and compiled on the watcher thread.
+ * Only the swap of the menu runs on the main thread, through {@link InventoryManager#swapMenuFile(String, InventoryBuilder)}.
+ */
+final class MenuWatcher implements Runnable {
+
+    private static final long DEBOUNCE_MILLIS = 500L;
+
+    private final InventoryManager inventoryManager;
+    private final MenuCache menuCache;
+    private final Path folder;
+    private final WatchService watchService;
+    private final Map<String, Long> pending = new HashMap<>();
+
+    MenuWatcher(InventoryManager inventoryManager, MenuCache menuCache, Path folder) throws IOException {
+        this.inventoryManager = inventoryManager;
+        this.menuCache = menuCache;
+        this.folder = folder;
+        this.watchService = folder.getFileSystem().newWatchService();
+        folder.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Starts watching on a daemon thread.
+     */
+    void start() {
+        Thread thread = new Thread(this, "LLibrary-MenuWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching. The watcher thread exits as soon as the watch service is closed.
+     */
+    void stop() {
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            LLibrary.getPluginLogger().warning("Failed to stop the menu watcher: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = this.pending.isEmpty()
+                        ? this.watchService.take()
+                        : this.watchService.poll(nextDeadline(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    collect(key);
+                    key.reset();
+                }
+                reloadSettled();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped.
+        }
+    }
+
+    private void collect(WatchKey key) {
+        long now = System.currentTimeMillis();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                File[] files = this.folder.toFile().listFiles(File::isFile);
+                if (files != null) {
+                    for (File file : files) this.pending.put(file.getName(), now);
+                }
+                continue;
+            }
+            Path path = (Path) event.context();
+            this.pending.put(path.getFileName().toString(), now);
+        }
+    }
+
+    private long nextDeadline() {
+        long oldest = Long.MAX_VALUE;
+        for (long changedAt : this.pending.values()) oldest = Math.min(oldest, changedAt);
+        return Math.max(1L, oldest + DEBOUNCE_MILLIS - System.currentTimeMillis());
+    }
+
+    private void reloadSettled() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (now - entry.getValue() < DEBOUNCE_MILLIS) continue;
+            iterator.remove();
+            reload(entry.getKey());
+        }
+    }
+
+    private void reload(String fileName) {
+        File file = this.folder.resolve(fileName).toFile();
+        InventoryBuilder inventoryBuilder = null;
+        if (file.isFile()) {
+            try {
+                MenuDescriptor descriptor = this.menuCache.read(file);
+                if (descriptor.isEmpty()) {
+                    LLibrary.getPluginLogger().warning("The menu file " + fileName + " is empty. Keeping the loaded menu...");
+                    return;
+                }
+                inventoryBuilder = InventoryManager.buildMenu(descriptor);
+            } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+                LLibrary.getPluginLogger().error("Failed to reload the menu file " + fileName + ": " + e.getMessage());
+                return;
+            }
+        } else {
+            this.menuCache.remove(fileName);
+        }
+
+        InventoryBuilder parsed = inventoryBuilder;
+        if (!LLibrary.getInstance().isEnabled()) return;
+        Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> this.inventoryManager.swapMenuFile(fileName, parsed));
+    }
+}
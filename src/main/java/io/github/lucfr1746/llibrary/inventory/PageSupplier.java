@@ -0,0 +1,75 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Supplies the content of a {@link PaginatedInventoryBuilder} one page at a time.
+ * <p>
+ * Only the requested page is ever materialised, so the cost of a paginated menu
+ * depends on its page size instead of the size of the whole catalogue.
+ */
+@FunctionalInterface
+public interface PageSupplier {
+
+    /**
+     * Fetches a page of buttons. The future may be completed on any thread.
+     * The visible page is requested on the main thread, the prefetched page is requested asynchronously.
+     * @param player The viewer.
+     * @param page The zero-based page index.
+     * @param pageSize The number of content slots of the menu.
+     * @return A future completed with the page.
+     */
+    CompletableFuture<Page> fetch(Player player, int page, int pageSize);
+
+    /**
+     * Creates a supplier over an in-memory list, converting only the entries of the requested page into buttons.
+     * @param entries The catalogue.
+     * @param mapper Converts an entry into a button.
+     * @param <T> The type of the entries.
+     * @return A supplier paging over the list.
+     */
+    static <T> PageSupplier fromList(List<T> entries, Function<T, InventoryButton> mapper) {
+        return (player, page, pageSize) -> {
+            int from = Math.min(entries.size(), page * pageSize);
+            int to = Math.min(entries.size(), from + pageSize);
+            List<InventoryButton> buttons = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                buttons.add(mapper.apply(entries.get(i)));
+            }
+            int totalPages = pageSize == 0 ? 0 : (entries.size() + pageSize - 1) / pageSize;
+            return CompletableFuture.completedFuture(new Page(buttons, totalPages));
+        };
+    }
+
+    /**
+     * A single page of content.
+     */
+    final class Page {
+
+        private final List<InventoryButton> buttons;
+        private final int totalPages;
+
+        /**
+         * Creates a page.
+         * @param buttons The buttons of the page, in content slot order.
+         * @param totalPages The total number of pages, or {@code -1} if unknown.
+         */
+        public Page(List<InventoryButton> buttons, int totalPages) {
+            this.buttons = List.copyOf(buttons);
+            this.totalPages = totalPages;
+        }
+
+        public List<InventoryButton> getButtons() {
+            return this.buttons;
+        }
+
+        public int getTotalPages() {
+            return this.totalPages;
+        }
+    }
+}
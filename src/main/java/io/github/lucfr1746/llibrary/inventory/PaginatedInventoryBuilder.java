@@ -0,0 +1,96 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * An inventory builder whose content slots are filled lazily from a {@link PageSupplier}.
+ * <p>
+ * Only the visible page is rendered and the next page is prefetched in the background.
+ * The fixed buttons of the menu (borders, navigation) are added as usual through {@link #addButton(int, InventoryButton)}.
+ */
+public class PaginatedInventoryBuilder extends InventoryBuilder {
+
+    private PageSupplier pageSupplier = (player, page, pageSize) ->
+            CompletableFuture.completedFuture(new PageSupplier.Page(List.of(), 0));
+    private int[] contentSlots;
+
+    /**
+     * Sets the supplier the pages of this menu are pulled from.
+     * @param pageSupplier The page supplier.
+     */
+    public void setPageSupplier(PageSupplier pageSupplier) {
+        this.pageSupplier = pageSupplier;
+    }
+
+    /**
+     * Sets the slots filled with the content of a page, in display order.
+     * If not set, every slot without a fixed button is used.
+     * @param contentSlots The raw content slots.
+     */
+    public void setContentSlots(int... contentSlots) {
+        this.contentSlots = contentSlots == null ? null : Arrays.copyOf(contentSlots, contentSlots.length);
+    }
+
+    public PageSupplier getPageSupplier() {
+        return this.pageSupplier;
+    }
+
+    /**
+     * Gets the content slots of this menu.
+     * @return A copy of the content slots, or {@code null} if every free slot is used.
+     */
+    public int[] getContentSlots() {
+        return this.contentSlots == null ? null : Arrays.copyOf(this.contentSlots, this.contentSlots.length);
+    }
+
+    /**
+     * Adds a button that shows the next page when clicked.
+     * @param slot The raw slot.
+     * @param button The button, its consumer is run after the page changes.
+     */
+    public void addNextPageButton(int slot, InventoryButton button) {
+        addButton(slot, navigationButton(button, PaginatedMenuSession::nextPage));
+    }
+
+    /**
+     * Adds a button that shows the previous page when clicked.
+     * @param slot The raw slot.
+     * @param button The button, its consumer is run after the page changes.
+     */
+    public void addPreviousPageButton(int slot, InventoryButton button) {
+        addButton(slot, navigationButton(button, PaginatedMenuSession::previousPage));
+    }
+
+    /**
+     * Adds a button that jumps to a page when clicked.
+     * @param slot The raw slot.
+     * @param page The zero-based page to jump to.
+     * @param button The button, its consumer is run after the page changes.
+     */
+    public void addJumpButton(int slot, int page, InventoryButton button) {
+        addButton(slot, navigationButton(button, session -> session.openPage(page)));
+    }
+
+    private InventoryButton navigationButton(InventoryButton button, Consumer<PaginatedMenuSession> navigation) {
+        InventoryButton navigationButton = button.clone();
+        navigationButton.consumer(event -> {
+            MenuSession session = LLibrary.getInventoryManager().getSession((Player) event.getWhoClicked());
+            if (session instanceof PaginatedMenuSession paginatedSession && session.getTemplate().getOwner() == this) {
+                navigation.accept(paginatedSession);
+            }
+            if (button.getEventConsumer() != null) button.getEventConsumer().accept(event);
+        });
+        return navigationButton;
+    }
+
+    @Override
+    protected MenuSession createSession(Player player) {
+        return new PaginatedMenuSession(getTemplate(), player, this.pageSupplier, this.contentSlots);
+    }
+}
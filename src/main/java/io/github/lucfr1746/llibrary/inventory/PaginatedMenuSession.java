@@ -0,0 +1,138 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.LLibrary;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * A viewer's session of a {@link PaginatedInventoryBuilder}.
+ * <p>
+ * The session keeps the visible page and, at most, one prefetched page in memory.
+ */
+public class PaginatedMenuSession extends MenuSession {
+
+    private final PageSupplier pageSupplier;
+    private final int[] configuredContentSlots;
+    private int[] contentSlots;
+    private int page;
+    private int totalPages = -1;
+    private int requestedPage;
+    private int prefetchedPage = -1;
+    private CompletableFuture<PageSupplier.Page> prefetched;
+
+    /**
+     * Creates a new paginated session.
+     * @param template The compiled menu template.
+     * @param viewer The player viewing the menu.
+     * @param pageSupplier The supplier the pages are pulled from.
+     * @param contentSlots The content slots, or {@code null} to use every slot without a fixed button.
+     */
+    public PaginatedMenuSession(MenuTemplate template, Player viewer, PageSupplier pageSupplier, int[] contentSlots) {
+        super(template, viewer);
+        this.pageSupplier = pageSupplier;
+        this.configuredContentSlots = contentSlots;
+    }
+
+    /**
+     * Gets the zero-based index of the visible page.
+     * @return The page index.
+     */
+    public int getPage() {
+        return this.page;
+    }
+
+    /**
+     * Gets the total number of pages, as reported by the last fetched page.
+     * @return The total number of pages, or {@code -1} if unknown.
+     */
+    public int getTotalPages() {
+        return this.totalPages;
+    }
+
+    /**
+     * Gets the number of content slots, which is the size of a page.
+     * @return The page size.
+     */
+    public int getPageSize() {
+        return this.contentSlots == null ? 0 : this.contentSlots.length;
+    }
+
+    public boolean hasNextPage() {
+        return this.totalPages < 0 || this.page + 1 < this.totalPages;
+    }
+
+    public boolean hasPreviousPage() {
+        return this.page > 0;
+    }
+
+    public void nextPage() {
+        if (hasNextPage()) openPage(this.page + 1);
+    }
+
+    public void previousPage() {
+        if (hasPreviousPage()) openPage(this.page - 1);
+    }
+
+    @Override
+    protected void commit() {
+        super.commit();
+        this.contentSlots = this.configuredContentSlots != null ? this.configuredContentSlots : freeSlots();
+        openPage(0);
+        flush();
+    }
+
+    /**
+     * Shows a page. The page is rendered as soon as it is fetched, and the following page is prefetched.
+     * @param page The zero-based page index.
+     */
+    public void openPage(int page) {
+        if (page < 0 || (this.totalPages >= 0 && page >= Math.max(1, this.totalPages))) return;
+        this.requestedPage = page;
+
+        CompletableFuture<PageSupplier.Page> future = page == this.prefetchedPage && this.prefetched != null
+                ? this.prefetched
+                : this.pageSupplier.fetch(getViewer(), page, getPageSize());
+        this.prefetched = null;
+        this.prefetchedPage = -1;
+
+        if (future.isDone() && !future.isCompletedExceptionally() && Bukkit.isPrimaryThread()) {
+            applyPage(page, future.getNow(null));
+            return;
+        }
+        future.whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(LLibrary.getInstance(), () -> {
+            if (throwable != null) {
+                LLibrary.getPluginLogger().error("Failed to fetch page " + page + " of menu " + getTemplate().getId() + ": " + throwable.getMessage());
+                return;
+            }
+            applyPage(page, result);
+        }));
+    }
+
+    private void applyPage(int page, PageSupplier.Page result) {
+        if (page != this.requestedPage || result == null) return;
+        this.page = page;
+        this.totalPages = result.getTotalPages();
+
+        List<InventoryButton> buttons = result.getButtons();
+        for (int i = 0; i < this.contentSlots.length; i++) {
+            setSlotButton(this.contentSlots[i], i < buttons.size() ? buttons.get(i) : null);
+        }
+
+        if (hasNextPage()) {
+            this.prefetchedPage = page + 1;
+            this.prefetched = CompletableFuture.supplyAsync(() -> this.pageSupplier.fetch(getViewer(), page + 1, getPageSize()))
+                    .thenCompose(next -> next);
+        }
+    }
+
+    private int[] freeSlots() {
+        int size = getInventory().getSize();
+        return IntStream.range(0, size)
+                .filter(slot -> getTemplate().slotButtons(slot) == null)
+                .toArray();
+    }
+}
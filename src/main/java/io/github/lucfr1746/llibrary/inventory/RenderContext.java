@@ -0,0 +1,60 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import io.github.lucfr1746.llibrary.requirement.Requirement;
+import org.bukkit.entity.Player;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Memoizes requirement results for one player during a single render pass or click.
+ * <p>
+ * The same {@link Requirement} instance is usually shared by every slot of a button,
+ * so a pass only evaluates each distinct requirement once instead of once per slot.
+ */
+public final class RenderContext {
+
+    private final Player player;
+    private IdentityHashMap<Requirement, Boolean> results;
+
+    /**
+     * Creates a context for a player.
+     * @param player The player requirements are evaluated against.
+     */
+    public RenderContext(Player player) {
+        this.player = player;
+    }
+
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Evaluates a requirement, reusing the result of a previous evaluation in this context.
+     * @param requirement The requirement.
+     * @return {@code true} if the player meets the requirement.
+     */
+    public boolean evaluate(Requirement requirement) {
+        if (this.results == null) this.results = new IdentityHashMap<>();
+        Boolean result = this.results.get(requirement);
+        if (result == null) {
+            result = requirement.evaluate(this.player);
+            this.results.put(requirement, result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the player meets every view requirement of a button.
+     * @param button The button.
+     * @return {@code true} if the button is visible to the player.
+     */
+    public boolean canView(InventoryButton button) {
+        List<Requirement> requirements = button.getViewRequirements();
+        if (requirements == null) return true;
+        for (int i = 0, size = requirements.size(); i < size; i++) {
+            if (!evaluate(requirements.get(i))) return false;
+        }
+        return true;
+    }
+}
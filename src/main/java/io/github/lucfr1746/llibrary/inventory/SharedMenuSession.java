@@ -0,0 +1,72 @@
+package io.github.lucfr1746.llibrary.inventory;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.InventoryView;
+
+import java.util.*;
+
+/**
+ * A single session of a shared menu, viewed by many players at once.
+ * <p>
+ * Every viewer looks at the same inventory, so the menu is rendered once and every update is written once.
+ * Icons and view requirements are resolved against one of the viewers, the content of a shared menu
+ * is expected to be the same for everyone. Clicks are still resolved against the clicking player.
+ */
+public class SharedMenuSession extends MenuSession {
+
+    private final Map<UUID, Player> viewers = new LinkedHashMap<>();
+
+    /**
+     * Creates a new shared session.
+     * @param template The compiled menu template, which must be a chest menu.
+     * @param viewer The first viewer, used to render the menu.
+     */
+    public SharedMenuSession(MenuTemplate template, Player viewer) {
+        super(template, viewer);
+    }
+
+    /**
+     * Gets every player viewing this menu.
+     * @return An unmodifiable view of the viewers.
+     */
+    public Collection<Player> getViewers() {
+        return Collections.unmodifiableCollection(this.viewers.values());
+    }
+
+    @Override
+    boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Shows the shared inventory to one more player.
+     * @param player The player.
+     * @return {@code true} if the player is now looking at this menu.
+     */
+    boolean open(Player player) {
+        InventoryView view = player.openInventory(getInventory());
+        return view != null && owns(player.getOpenInventory().getTopInventory());
+    }
+
+    /**
+     * Adds a viewer.
+     * @param player The player who opened the menu.
+     * @return {@code true} if this is the first viewer.
+     */
+    boolean addViewer(Player player) {
+        this.viewers.put(player.getUniqueId(), player);
+        return this.viewers.size() == 1;
+    }
+
+    /**
+     * Removes a viewer, rendering with another viewer from now on if it was the one used to render.
+     * @param playerId The UUID of the player who closed the menu.
+     * @return {@code true} if nobody is viewing the menu anymore.
+     */
+    boolean removeViewer(UUID playerId) {
+        this.viewers.remove(playerId);
+        if (this.viewers.isEmpty()) return true;
+        if (getViewer().getUniqueId().equals(playerId)) setViewer(this.viewers.values().iterator().next());
+        return false;
+    }
+}
@@ -3,6 +3,7 @@ package io.github.lucfr1746.llibrary.requirement;
 import io.github.lucfr1746.llibrary.LLibrary;
 import io.github.lucfr1746.llibrary.action.Action;
 import io.github.lucfr1746.llibrary.action.ActionLoader;
+import io.github.lucfr1746.llibrary.action.ActionProgram;
 import io.github.lucfr1746.llibrary.requirement.list.HasExpRequirement;
 import io.github.lucfr1746.llibrary.requirement.list.HasLevelRequirement;
 import io.github.lucfr1746.llibrary.requirement.list.HasPermissionRequirement;
@@ -15,29 +16,55 @@ import java.util.stream.Collectors;
 
 /**
  * Handles the loading and registration of various requirement types for use in the system.
+ * <p>
+ * Like the {@link ActionLoader}, every loader shares one process-wide registry that is copied on write,
+ * so requirement types registered by other plugins work in every menu and lookups are lock-free.
  */
 public class RequirementLoader {
 
-    private final ActionLoader actionLoader = new ActionLoader();
-    private final Map<String, Function<Object, Requirement>> requirementFactories = new HashMap<>();
+    private static final RequirementLoader INSTANCE = new RequirementLoader();
+    private static final Object REGISTRY_LOCK = new Object();
+    private static volatile Map<String, Function<Object, Requirement>> requirementFactories = Map.of();
+
+    static {
+        INSTANCE.registerDefaults();
+    }
 
     /**
-     * Initializes the RequirementLoader and registers default requirement types.
+     * Creates a loader backed by the shared registry.
+     * Prefer {@link #getInstance()}, every loader sees the same requirement types.
      */
     public RequirementLoader() {
+    }
+
+    /**
+     * Gets the shared loader.
+     *
+     * @return The RequirementLoader instance.
+     */
+    public static RequirementLoader getInstance() {
+        return INSTANCE;
+    }
+
+    private void registerDefaults() {
         registerRequirementType("PERMISSION", perm -> new HasPermissionRequirement((String) perm));
         registerRequirementType("EXP", amount -> new HasExpRequirement((int) amount));
         registerRequirementType("LEVEL", amount -> new HasLevelRequirement((int) amount));
     }
 
     /**
-     * Registers a new requirement type.
+     * Registers a new requirement type, for every loader.
+     * The factory of a custom type receives the {@link ConfigurationSection} of the requirement.
      *
      * @param name    The name of the requirement type.
      * @param factory A function that takes an object and returns a new instance of the requirement.
      */
     public void registerRequirementType(String name, Function<Object, Requirement> factory) {
-        requirementFactories.put(name.toUpperCase(), factory);
+        synchronized (REGISTRY_LOCK) {
+            Map<String, Function<Object, Requirement>> factories = new HashMap<>(requirementFactories);
+            factories.put(name.toUpperCase(Locale.ROOT), factory);
+            requirementFactories = Map.copyOf(factories);
+        }
     }
 
     /**
@@ -65,7 +92,7 @@ public class RequirementLoader {
     private Requirement loadRequirement(ConfigurationSection section, String key) {
         if (section == null) return null;
 
-        String typeString = Optional.ofNullable(section.getString("type")).orElse("").toUpperCase();
+        String typeString = Optional.ofNullable(section.getString("type")).orElse("").toUpperCase(Locale.ROOT);
         Function<Object, Requirement> factory = requirementFactories.get(typeString);
         if (factory == null) {
             LLibrary.getPluginLogger().error("Invalid or missing requirement type: " + typeString + " in section: " + key + ". Skipping...");
@@ -79,7 +106,7 @@ public class RequirementLoader {
             Object arg = switch (typeString) {
                 case "PERMISSION" -> section.getString("permission");
                 case "EXP", "LEVEL" -> parseAmount(section.getString("amount"), key);
-                default -> null;
+                default -> section;
             };
 
             if (arg == null) throw new IllegalArgumentException("Missing or invalid argument for requirement type: " + typeString + " in section: " + key);
@@ -101,9 +128,12 @@ public class RequirementLoader {
      */
     private List<Action> loadActions(ConfigurationSection section, String path) {
         Object actionData = section.get(path);
-        if (actionData instanceof String) return List.of(actionLoader.getAction((String) actionData));
-        if (actionData instanceof List<?>) return actionLoader.getActions(section.getStringList(path));
-        return Collections.emptyList();
+        List<String> inputs;
+        if (actionData instanceof String) inputs = List.of((String) actionData);
+        else if (actionData instanceof List<?>) inputs = section.getStringList(path);
+        else return Collections.emptyList();
+        ActionProgram program = ActionLoader.getInstance().compile(inputs);
+        return program.isEmpty() ? Collections.emptyList() : List.of(program);
     }
 
     /**
@@ -0,0 +1,82 @@
+package io.github.lucfr1746.llibrary.util.helper;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples in a fixed-size ring buffer and reports percentiles over them.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private long total;
+
+    /**
+     * Creates a tracker keeping the last {@code capacity} samples.
+     *
+     * @param capacity The number of samples to keep.
+     */
+    public LatencyTracker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive -> " + capacity);
+        }
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        this.samples[this.next] = nanos;
+        this.next = (this.next + 1) % this.samples.length;
+        if (this.count < this.samples.length) this.count++;
+        this.total++;
+    }
+
+    /**
+     * Gets a percentile of the recorded samples.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (this.count == 0) return 0;
+            sorted = Arrays.copyOf(this.samples, this.count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Gets the median of the recorded samples.
+     *
+     * @return The latency in milliseconds.
+     */
+    public double getP50Millis() {
+        return getPercentile(50) / 1_000_000D;
+    }
+
+    /**
+     * Gets the 99th percentile of the recorded samples.
+     *
+     * @return The latency in milliseconds.
+     */
+    public double getP99Millis() {
+        return getPercentile(99) / 1_000_000D;
+    }
+
+    /**
+     * Gets the number of samples recorded since creation, including the ones no longer kept.
+     *
+     * @return The total number of samples.
+     */
+    public synchronized long getTotal() {
+        return this.total;
+    }
+}